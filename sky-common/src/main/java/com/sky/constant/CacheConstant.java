@@ -0,0 +1,13 @@
+package com.sky.constant;
+
+/**
+ * Spring Cache缓存名称
+ */
+public class CacheConstant {
+    // 分类下的起售套餐
+    public static final String SETMEAL_CACHE = "setmealCache";
+    // 分类下的起售套餐及其包含的菜品
+    public static final String SETMEAL_DETAIL_CACHE = "setmealDetailCache";
+    // 按类型查询的启用分类
+    public static final String CATEGORY_CACHE = "categoryCache";
+}
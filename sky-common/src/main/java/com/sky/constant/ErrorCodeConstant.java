@@ -0,0 +1,22 @@
+package com.sky.constant;
+
+/**
+ * 业务错误码，未指定时统一返回500
+ * 前三位沿用HTTP状态码语义，后两位区分具体原因
+ */
+public class ErrorCodeConstant {
+    // 分类关联了菜品，不能删除
+    public static final int CATEGORY_BE_RELATED_BY_DISH = 40901;
+    // 分类关联了套餐，不能删除
+    public static final int CATEGORY_BE_RELATED_BY_SETMEAL = 40902;
+    // 同一幂等键的请求正在处理中
+    public static final int IDEMPOTENCY_REQUEST_IN_PROGRESS = 40903;
+    // 幂等键已用于其他请求（接口或参数不同）
+    public static final int IDEMPOTENCY_KEY_REUSED = 42201;
+    // 幂等键格式错误
+    public static final int IDEMPOTENCY_KEY_INVALID = 40001;
+    // 请求过于频繁，被限流
+    public static final int TOO_MANY_REQUESTS = 42901;
+    // 服务过载，超出并发上限被快速拒绝
+    public static final int SERVICE_BUSY = 50301;
+}
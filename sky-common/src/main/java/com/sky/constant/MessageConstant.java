@@ -24,5 +24,15 @@ public class MessageConstant {
     public static final String ORDER_STATUS_ERROR = "订单状态错误";
     public static final String ORDER_NOT_FOUND = "订单不存在";
     public static final String ALREADY_EXISTS = "已存在";
+    public static final String ORDER_CURSOR_INVALID = "分页游标无效";
+    public static final String REPORT_DATE_RANGE_ERROR = "统计日期范围错误";
+    public static final String EXPORT_FAILED = "导出失败";
+    public static final String REPORT_FAILED = "统计失败";
+    public static final String REPORT_BUSY = "统计任务繁忙，请稍后重试";
+    public static final String IDEMPOTENCY_REQUEST_IN_PROGRESS = "请求正在处理中，请勿重复提交";
+    public static final String IDEMPOTENCY_KEY_REUSED = "幂等键已用于其他请求";
+    public static final String IDEMPOTENCY_KEY_INVALID = "幂等键格式错误";
+    public static final String TOO_MANY_REQUESTS = "请求过于频繁，请稍后重试";
+    public static final String SERVICE_BUSY = "系统繁忙，请稍后重试";
 
 }
@@ -3,4 +3,34 @@ package com.sky.constant;
 public class RedisKeysConstant {
     // 依据类别id查询菜品key
     public static final String DISH_BY_CATERGORYID_KEY = "sky:dish:categoryId:";
+    // 订单推送消息频道（多节点通过Redis pub/sub广播）
+    public static final String ORDER_PUSH_CHANNEL = "sky:ws:order";
+    // 每日商品销量排行（ZSET，member为商品名称，score为销量），后接日期yyyy-MM-dd
+    public static final String SALES_DAILY_KEY = "sky:sales:daily:";
+    // 销量排行跨日期合并的临时key前缀
+    public static final String SALES_UNION_KEY = "sky:sales:union:";
+    // 销量排行已从MySQL回填的标记，值为回填日期；不存在时启动后回填一次
+    public static final String SALES_BACKFILL_KEY = "sky:sales:backfilled";
+    // 工作台当日订单计数（HASH，多节点增量汇总），后接日期yyyy-MM-dd
+    public static final String WORKSPACE_TODAY_KEY = "sky:workspace:today:";
+    // 工作台菜品、套餐起售停售数量（HASH）
+    public static final String WORKSPACE_MENU_KEY = "sky:workspace:menu";
+    // 工作台计数与MySQL对账的分布式锁
+    public static final String WORKSPACE_RECONCILE_LOCK_KEY = "sky:workspace:reconcile:lock";
+    // 历史每日订单状态计数（HASH，field为日期yyyy-MM-dd，value为状态->数量的JSON），已结束的日期长期缓存
+    public static final String ORDER_STATS_DAILY_KEY = "sky:report:order:daily";
+    // Spring Cache的key前缀，后接缓存名称
+    public static final String CACHE_KEY_PREFIX = "sky:cache:";
+    // 本地一级缓存失效通知频道
+    public static final String CACHE_INVALIDATION_CHANNEL = "sky:cache:invalidate";
+    // 菜单版本号，分类、菜品、套餐变更后递增
+    public static final String MENU_VERSION_KEY = "sky:menu:version";
+    // 菜单变更记录（ZSET，member为类型:id，score为最近一次变更后的菜单版本号）
+    public static final String MENU_CHANGES_KEY = "sky:menu:changes";
+    // 菜单变更记录已清理到的版本号，不大于该版本号的变更已删除
+    public static final String MENU_CHANGES_FLOOR_KEY = "sky:menu:changes:floor";
+    // 幂等请求记录（处理中标记或已完成的响应），后接用户id:幂等键
+    public static final String IDEMPOTENCY_KEY = "sky:idempotency:";
+    // 限流令牌桶（HASH，tokens为剩余令牌数，ts为上次补充时间），后接规则名称:限流对象
+    public static final String RATE_LIMIT_KEY = "sky:ratelimit:";
 }
@@ -0,0 +1,131 @@
+package com.sky.context;
+
+import com.sky.utils.TraceIdUtils;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 请求上下文快照，用于跨线程传递TraceID和当前用户id
+ * <pre>
+ * - 提交任务时capture()，执行任务时restore()，结束后恢复执行线程原有的上下文（而不是简单清空），
+ *   任务在提交线程上直接执行时也不会破坏调用方的上下文
+ * - 线程池通过TaskDecorator统一包装；CompletableFuture使用未装饰的执行器（如公共ForkJoinPool）时用wrap包装
+ * </pre>
+ * 使用示例：
+ * <pre>
+ * ContextSnapshot snapshot = ContextSnapshot.capture();
+ * CompletableFuture.supplyAsync(snapshot.wrap(() -> orderMapper.getById(id)));
+ *
+ * try (ContextSnapshot.Scope ignored = snapshot.restore()) {
+ *     // 此处可以读到提交线程的TraceID和用户id
+ * }
+ * </pre>
+ */
+public final class ContextSnapshot {
+
+    private final String traceId;
+
+    private final Long userId;
+
+    private ContextSnapshot(String traceId, Long userId) {
+        this.traceId = traceId;
+        this.userId = userId;
+    }
+
+    /**
+     * 捕获当前线程的上下文
+     *
+     * @return ContextSnapshot
+     */
+    public static ContextSnapshot capture() {
+        return new ContextSnapshot(TraceIdUtils.get(), UserContext.getCurrentId());
+    }
+
+    /**
+     * 指定内容的上下文，如定时任务每次执行使用新的TraceID、没有当前用户
+     *
+     * @param traceId TraceID
+     * @param userId  用户id
+     * @return ContextSnapshot
+     */
+    public static ContextSnapshot of(String traceId, Long userId) {
+        return new ContextSnapshot(traceId, userId);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * 将快照应用到当前线程，关闭返回的Scope时恢复当前线程原有的上下文
+     *
+     * @return Scope
+     */
+    public Scope restore() {
+        Scope previous = new Scope(TraceIdUtils.get(), UserContext.getCurrentId());
+        apply(traceId, userId);
+        return previous;
+    }
+
+    public Runnable wrap(Runnable runnable) {
+        return () -> {
+            try (Scope ignored = restore()) {
+                runnable.run();
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        return () -> {
+            try (Scope ignored = restore()) {
+                return supplier.get();
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return () -> {
+            try (Scope ignored = restore()) {
+                return callable.call();
+            }
+        };
+    }
+
+    private static void apply(String traceId, Long userId) {
+        if (traceId == null) {
+            TraceIdUtils.clear();
+        } else {
+            TraceIdUtils.bind(traceId);
+        }
+        if (userId == null) {
+            UserContext.removeCurrentId();
+        } else {
+            UserContext.setCurrentId(userId);
+        }
+    }
+
+    /**
+     * 上下文作用域，关闭时恢复进入前的上下文
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String previousTraceId;
+
+        private final Long previousUserId;
+
+        private Scope(String previousTraceId, Long previousUserId) {
+            this.previousTraceId = previousTraceId;
+            this.previousUserId = previousUserId;
+        }
+
+        @Override
+        public void close() {
+            apply(previousTraceId, previousUserId);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sky.context;
+
+/**
+ * 只读上下文，标记当前线程的数据库访问可以路由到从库
+ * 使用计数支持嵌套的只读方法
+ */
+public class ReadOnlyContext {
+
+    private static final ThreadLocal<Integer> depth = new ThreadLocal<>();
+
+    public static void enter() {
+        Integer current = depth.get();
+        depth.set(current == null ? 1 : current + 1);
+    }
+
+    public static void exit() {
+        Integer current = depth.get();
+        if (current == null || current <= 1) {
+            depth.remove();
+        } else {
+            depth.set(current - 1);
+        }
+    }
+
+    public static boolean isReadOnly() {
+        return depth.get() != null;
+    }
+
+}
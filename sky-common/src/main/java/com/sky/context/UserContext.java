@@ -1,8 +1,12 @@
 package com.sky.context;
 
+/**
+ * 当前登录的员工、用户id
+ * 由jwt拦截器设置，请求结束时在拦截器和TraceIdFilter中清除；异步任务通过ContextSnapshot传递
+ */
 public class UserContext {
 
-    public static ThreadLocal<Long> threadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Long> threadLocal = new ThreadLocal<>();
 
     public static void setCurrentId(Long id) {
         threadLocal.set(id);
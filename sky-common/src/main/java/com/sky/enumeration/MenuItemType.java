@@ -0,0 +1,23 @@
+package com.sky.enumeration;
+
+/**
+ * 菜单数据类型，用于记录菜单增量变更
+ */
+public enum MenuItemType {
+
+    /**
+     * 分类
+     */
+    CATEGORY,
+
+    /**
+     * 菜品
+     */
+    DISH,
+
+    /**
+     * 套餐
+     */
+    SETMEAL
+
+}
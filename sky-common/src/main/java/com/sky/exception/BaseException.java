@@ -5,6 +5,9 @@ package com.sky.exception;
  */
 public class BaseException extends RuntimeException {
 
+    // 业务错误码，为null时返回默认错误码
+    private Integer code;
+
     public BaseException() {
     }
 
@@ -12,4 +15,13 @@ public class BaseException extends RuntimeException {
         super(msg);
     }
 
+    public BaseException(Integer code, String msg) {
+        super(msg);
+        this.code = code;
+    }
+
+    public Integer getCode() {
+        return code;
+    }
+
 }
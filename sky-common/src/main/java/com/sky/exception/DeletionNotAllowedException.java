@@ -6,4 +6,8 @@ public class DeletionNotAllowedException extends BaseException {
         super(msg);
     }
 
+    public DeletionNotAllowedException(Integer code, String msg) {
+        super(code, msg);
+    }
+
 }
@@ -0,0 +1,9 @@
+package com.sky.exception;
+
+public class IdempotencyException extends BaseException {
+
+    public IdempotencyException(Integer code, String msg) {
+        super(code, msg);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.sky.exception;
+
+public class ServiceBusyException extends BaseException {
+
+    public ServiceBusyException(Integer code, String msg) {
+        super(code, msg);
+    }
+
+}
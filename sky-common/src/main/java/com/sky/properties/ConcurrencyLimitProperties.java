@@ -0,0 +1,52 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "sky.concurrency-limit")
+@Data
+public class ConcurrencyLimitProperties {
+
+    /**
+     * 是否开启自适应并发限制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 各限流器的参数，限流器名称 -> 参数，未配置的限流器使用默认参数
+     */
+    private Map<String, Limiter> limiters = new HashMap<>();
+
+    @Data
+    public static class Limiter {
+        /**
+         * 初始并发上限
+         */
+        private int initialLimit = 10;
+        /**
+         * 并发上限的下限，延迟再高也至少允许这么多请求同时执行
+         */
+        private int minLimit = 2;
+        /**
+         * 并发上限的上限，不应超过Tomcat线程数，通常与数据库连接池大小同一量级
+         */
+        private int maxLimit = 100;
+        /**
+         * 每个窗口对并发上限的调整比例，越大调整越快、波动越大
+         */
+        private double smoothing = 0.2;
+        /**
+         * 可容忍的延迟上升倍数，近期延迟不超过长期延迟的该倍数时不降低上限
+         */
+        private double rttTolerance = 1.5;
+        /**
+         * 长期延迟按最近多少个窗口做指数平均，一个窗口约为所有并发名额各完成一次请求
+         */
+        private int longWindow = 600;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sky.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "sky.executor")
+@Data
+public class ExecutorProperties {
+
+    /**
+     * 通用异步任务（@Async）
+     */
+    private Pool async = new Pool(8, 16, 100, 60, SheddingPolicy.ABORT);
+
+    /**
+     * 管理端WebSocket消息推送，消息在各会话的发送队列中合并，被拒绝时留在队列等待下次调度；只能为ABORT
+     */
+    private Pool notification = new Pool(2, 4, 1000, 60, SheddingPolicy.ABORT);
+
+    /**
+     * 报表分段统计，被拒绝时本次统计快速失败；只能为ABORT，丢弃的分段任务不会完成
+     */
+    private Pool report = new Pool(4, 4, 64, 60, SheddingPolicy.ABORT);
+
+    /**
+     * 缓存、统计数据重建，任务幂等且总是按最新数据重建，队列满时丢弃新任务
+     */
+    private Pool cacheRebuild = new Pool(1, 2, 16, 60, SheddingPolicy.DISCARD);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        /**
+         * 核心线程数
+         */
+        private int corePoolSize;
+        /**
+         * 最大线程数，队列满后才会扩容到该值
+         */
+        private int maxPoolSize;
+        /**
+         * 队列容量
+         */
+        private int queueCapacity;
+        /**
+         * 非核心线程空闲保活时间（秒）
+         */
+        private int keepAliveSeconds;
+        /**
+         * 线程和队列都满时的处理策略
+         */
+        private SheddingPolicy sheddingPolicy;
+    }
+
+    /**
+     * 过载时的任务处理策略，不使用调用者线程执行，避免异步任务占用请求线程
+     */
+    public enum SheddingPolicy {
+        /**
+         * 拒绝并抛出RejectedExecutionException，由提交方决定如何处理
+         */
+        ABORT,
+        /**
+         * 丢弃新提交的任务
+         */
+        DISCARD,
+        /**
+         * 丢弃队列中最早的任务，再提交新任务
+         */
+        DISCARD_OLDEST
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "sky.idempotency")
+@Data
+public class IdempotencyProperties {
+
+    /**
+     * 处理中标记的过期时间，需大于接口最长处理时间（含调用微信支付等外部接口），进程崩溃时到期后允许重试
+     */
+    private Duration inFlightTtl = Duration.ofSeconds(60);
+
+    /**
+     * 已完成请求的响应保留时间，期间同一幂等键的重复请求直接返回该响应
+     */
+    private Duration completedTtl = Duration.ofHours(24);
+
+    /**
+     * 幂等键最大长度，超出时拒绝请求
+     */
+    private int maxKeyLength = 64;
+
+}
@@ -0,0 +1,86 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "sky.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    /**
+     * 是否开启用户端接口限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 取客户端IP的请求头（如经nginx转发时的X-Real-IP），为空时使用连接的远端地址
+     * 只应配置由网关覆盖写入的请求头，否则客户端可以伪造IP绕过限流
+     */
+    private String clientIpHeader;
+
+    /**
+     * 本地令牌桶分段数，按key的hash分段加锁，取2的幂
+     */
+    private int stripes = 64;
+
+    /**
+     * 本地最多保留的令牌桶数量，超出时按最近最少使用淘汰
+     */
+    private int maxLocalBuckets = 10000;
+
+    /**
+     * 每次从Redis全局令牌桶预取的令牌数，越大访问Redis越少，多节点间分配越不均匀
+     * 实际预取数不超过规则容量和lease-ttl内补充的令牌数（向上取整，至少1个）
+     */
+    private int leaseSize = 5;
+
+    /**
+     * 预取令牌的有效期，过期未用完的令牌作废，避免节点长期占用全局配额
+     */
+    private Duration leaseTtl = Duration.ofSeconds(1);
+
+    /**
+     * 限流规则，按顺序匹配，请求只使用第一个匹配的规则
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        /**
+         * 规则名称，用于Redis key和指标tag
+         */
+        private String name;
+        /**
+         * 匹配的路径（Ant风格）
+         */
+        private List<String> pathPatterns = new ArrayList<>();
+        /**
+         * 限流维度
+         */
+        private KeyType keyType = KeyType.USER;
+        /**
+         * 令牌桶容量，即允许的突发请求数
+         */
+        private int capacity;
+        /**
+         * 每秒补充的令牌数，可以小于1，如0.2表示每分钟12个
+         */
+        private double refillPerSecond;
+    }
+
+    /**
+     * 限流维度
+     */
+    public enum KeyType {
+        // 按用户id限流，未登录时按IP
+        USER,
+        // 按客户端IP限流
+        IP
+    }
+}
@@ -0,0 +1,51 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "sky.datasource.replica")
+@Data
+public class ReplicaDataSourceProperties {
+
+    /**
+     * 是否开启读写分离，关闭时所有访问走主库
+     */
+    private boolean enabled;
+
+    /**
+     * 从库允许的最大复制延迟（秒），超出后该从库暂停使用，读请求回退主库
+     */
+    private long maxLagSeconds = 3;
+
+    /**
+     * 延迟检测间隔（毫秒）
+     */
+    private long lagCheckInterval = 5000;
+
+    /**
+     * 是否检测复制延迟，使用H2等非MySQL从库替身时关闭
+     */
+    private boolean lagCheckEnabled = true;
+
+    /**
+     * 从库列表
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        /**
+         * 驱动类名，为空时与主库相同
+         */
+        private String driverClassName;
+    }
+
+}
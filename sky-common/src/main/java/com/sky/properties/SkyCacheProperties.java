@@ -0,0 +1,62 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "sky.cache")
+@Data
+public class SkyCacheProperties {
+
+    /**
+     * 未单独配置的缓存的过期时间
+     */
+    private Duration defaultTtl = Duration.ofMinutes(30);
+
+    /**
+     * 过期时间随机延长的比例，0.1表示在TTL基础上随机增加0~10%，避免同一批key同时过期
+     */
+    private double jitterRatio = 0.1;
+
+    /**
+     * 各缓存的过期时间，缓存名称 -> TTL
+     */
+    private Map<String, Duration> ttls = new HashMap<>();
+
+    /**
+     * 菜单变更提交后，延迟多久再清空一次菜单缓存并递增菜单版本号，清除并发请求写回的旧数据；0表示不复查，提交后立即递增
+     */
+    private Duration menuRecheckDelay = Duration.ofSeconds(1);
+
+    /**
+     * 菜单变更记录保留的版本数，更早的变更在递增版本号时删除；客户端版本号落后更多时需重新获取完整快照
+     */
+    private int menuChangeRetention = 1000;
+
+    /**
+     * 本地一级缓存
+     */
+    private Local local = new Local();
+
+    @Data
+    public static class Local {
+        /**
+         * 是否开启本地一级缓存
+         */
+        private boolean enabled;
+        /**
+         * 每个缓存的最大条目数，超出后淘汰最久未访问的条目
+         */
+        private int maxSize = 1000;
+        /**
+         * 本地条目的过期时间，同时是其他节点修改后本节点可能读到旧值的最长时间
+         */
+        private Duration ttl = Duration.ofSeconds(10);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "sky.virtual-threads")
+@Data
+public class VirtualThreadProperties {
+
+    /**
+     * 是否使用虚拟线程处理Tomcat请求和asyncExecutor异步任务，需运行在JDK 21及以上，否则回退平台线程
+     */
+    private boolean enabled;
+
+}
@@ -0,0 +1,27 @@
+package com.sky.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 封装游标（keyset）分页查询结果
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResult implements Serializable {
+
+    private List records; //当前页数据集合
+
+    private String nextCursor; //下一页游标，为空表示没有更多数据
+
+    private boolean hasMore; //是否还有下一页
+
+    private Long approximateTotal; //估算总记录数，未请求时为null
+}
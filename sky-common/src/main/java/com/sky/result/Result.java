@@ -38,6 +38,13 @@ public class Result<T> implements Serializable {
         return result;
     }
 
+    public static <T> Result<T> error(Integer code, String msg) {
+        Result<T> result = new Result<T>();
+        result.msg = msg;
+        result.code = code == null ? Result.ERROR_CODE : code;
+        return result;
+    }
+
 
 
 }
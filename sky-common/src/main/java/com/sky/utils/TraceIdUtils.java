@@ -3,6 +3,8 @@ package com.sky.utils;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * TraceID工具类
  *
@@ -38,6 +40,13 @@ public class TraceIdUtils {
      */
     private static final String TRACE_ID_KEY = "traceId";
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * W3C traceparent：version-traceId-parentId-flags，如00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01
+     */
+    private static final int TRACEPARENT_LENGTH = 55;
+
     /**
      * 绑定TraceID到当前线程的MDC
      *
@@ -50,6 +59,101 @@ public class TraceIdUtils {
         }
     }
 
+    /**
+     * 生成新的TraceID：32个字符的小写十六进制字符串，与W3C trace-id格式一致
+     * TraceID只用于串联日志，不需要UUID使用的SecureRandom，直接编码两个随机long
+     *
+     * @return TraceID
+     */
+    public static String generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = random.nextLong();
+        long low = random.nextLong();
+        if (high == 0 && low == 0) {
+            // W3C规定全0为无效值
+            low = 1;
+        }
+        char[] chars = new char[32];
+        writeHex(chars, 0, high);
+        writeHex(chars, 16, low);
+        return new String(chars);
+    }
+
+    /**
+     * 生成新的span id：16个字符的小写十六进制字符串，用于向下游传递traceparent
+     *
+     * @return span id
+     */
+    public static String generateSpanId() {
+        long value = ThreadLocalRandom.current().nextLong();
+        char[] chars = new char[16];
+        writeHex(chars, 0, value == 0 ? 1 : value);
+        return new String(chars);
+    }
+
+    /**
+     * 从W3C traceparent请求头中解析TraceID
+     *
+     * @param traceparent traceparent请求头
+     * @return TraceID，格式不合法时返回null
+     */
+    public static String parseTraceparent(String traceparent) {
+        if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || traceparent.startsWith("ff")) {
+            return null;
+        }
+        // 高版本可能在flags后以'-'追加字段，版本00必须恰好55个字符
+        if (traceparent.length() > TRACEPARENT_LENGTH
+                && (traceparent.startsWith("00") || traceparent.charAt(TRACEPARENT_LENGTH) != '-')) {
+            return null;
+        }
+        if (!isLowerHex(traceparent, 0, 2) || !isLowerHex(traceparent, 3, 35) || !isLowerHex(traceparent, 36, 52)
+                || !isLowerHex(traceparent, 53, 55) || isAllZero(traceparent, 3, 35) || isAllZero(traceparent, 36, 52)) {
+            return null;
+        }
+        return traceparent.substring(3, 35);
+    }
+
+    /**
+     * 生成向下游传递的W3C traceparent，TraceID不是32位十六进制时返回null
+     *
+     * @param traceId TraceID
+     * @return traceparent请求头
+     */
+    public static String traceparent(String traceId) {
+        if (traceId == null || traceId.length() != 32 || !isLowerHex(traceId, 0, 32) || isAllZero(traceId, 0, 32)) {
+            return null;
+        }
+        return "00-" + traceId + "-" + generateSpanId() + "-01";
+    }
+
+    private static void writeHex(char[] chars, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static boolean isLowerHex(String value, int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAllZero(String value, int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 从MDC中获取TraceID
      *
@@ -0,0 +1,95 @@
+package com.sky.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程工具类
+ *
+ * 项目按Java 17编译，虚拟线程API（JDK 21）通过反射调用，
+ * 同一构建产物运行在JDK 21及以上时可开启虚拟线程，运行在低版本JDK时返回不支持；
+ * JDK 19、20未开启--enable-preview时API存在但调用会抛异常，同样视为不支持
+ */
+@Slf4j
+public class VirtualThreadUtils {
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+
+    private static final boolean SUPPORTED = probe();
+
+    private VirtualThreadUtils() {
+    }
+
+    /**
+     * 当前JDK是否支持虚拟线程
+     *
+     * @return 能够创建虚拟线程执行器时返回true
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     *
+     * @param namePrefix 线程名称前缀，后接自增序号
+     * @return ExecutorService
+     * @throws IllegalStateException 当前JDK不支持虚拟线程
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("当前JDK不支持虚拟线程：" + System.getProperty("java.version"));
+        }
+        try {
+            return createThreadPerTaskExecutor(namePrefix);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", e);
+        }
+    }
+
+    /**
+     * 实际创建一次执行器并启动一个虚拟线程，任何异常都视为不支持
+     */
+    private static boolean probe() {
+        if (OF_VIRTUAL == null) {
+            return false;
+        }
+        ExecutorService executor = null;
+        try {
+            executor = createThreadPerTaskExecutor("vt-probe-");
+            executor.submit(() -> { }).get();
+            return true;
+        } catch (Exception | LinkageError e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.info("虚拟线程不可用（JDK {}）：{}", System.getProperty("java.version"), cause.toString());
+            return false;
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static ExecutorService createThreadPerTaskExecutor(String namePrefix) throws ReflectiveOperationException {
+        // Thread.ofVirtual().name(namePrefix, 0).factory()
+        Object builder = OF_VIRTUAL.invoke(null);
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+        ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        // Executors.newThreadPerTaskExecutor(factory)
+        return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
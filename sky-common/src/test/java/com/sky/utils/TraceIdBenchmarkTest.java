@@ -0,0 +1,83 @@
+package com.sky.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TraceID生成性能对比：UUID.randomUUID()（SecureRandom）与TraceIdUtils.generate()（ThreadLocalRandom）
+ * <pre>
+ * 默认跳过，手动执行：
+ *   mvn -pl sky-common test -Dtest=TraceIdBenchmarkTest -Dbenchmark=true
+ * - 单线程与多线程（-Dbenchmark.threads，默认为CPU核数）分别测量，每轮先预热再计时
+ * - 多线程下SecureRandom共享同一把锁，差距随线程数增大
+ * - 结果（单个线程每次调用的平均纳秒数）打印到控制台
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TraceIdBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    void generateVersusUuid() throws Exception {
+        int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+        for (int n : threads > 1 ? new int[]{1, threads} : new int[]{1}) {
+            double uuid = measure(n, () -> UUID.randomUUID().toString().replace("-", ""));
+            double generate = measure(n, TraceIdUtils::generate);
+            double parse = measure(n, () -> TraceIdUtils.parseTraceparent(TRACEPARENT));
+            System.out.printf("threads=%d uuid=%.1fns generate=%.1fns parseTraceparent=%.1fns%n", n, uuid, generate, parse);
+        }
+    }
+
+    /**
+     * 每个线程执行ITERATIONS次，返回单个线程每次调用的平均耗时（纳秒，按墙钟时间计）
+     */
+    private static double measure(int threads, Supplier<String> supplier) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            run(pool, threads, WARMUP, supplier);
+            long start = System.nanoTime();
+            long checksum = run(pool, threads, ITERATIONS, supplier);
+            long elapsed = System.nanoTime() - start;
+            // 使用结果，避免调用被JIT消除
+            assertThat(checksum).isNotZero();
+            return (double) elapsed / ITERATIONS;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long run(ExecutorService pool, int threads, int iterations, Supplier<String> supplier) throws Exception {
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] checksums = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            pool.execute(() -> {
+                long checksum = 0;
+                for (int i = 0; i < iterations; i++) {
+                    checksum += supplier.get().charAt(i & 15);
+                }
+                checksums[index] = checksum;
+                done.countDown();
+            });
+        }
+        assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        long total = 0;
+        for (long checksum : checksums) {
+            total += checksum;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sky.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TraceID生成与W3C traceparent解析
+ */
+class TraceIdUtilsTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String VALID = "00-" + TRACE_ID + "-00f067aa0ba902b7-01";
+
+    @Test
+    void parsesValidTraceparent() {
+        assertThat(TraceIdUtils.parseTraceparent(VALID)).isEqualTo(TRACE_ID);
+        assertThat(TraceIdUtils.parseTraceparent("00-" + TRACE_ID + "-00f067aa0ba902b7-00")).isEqualTo(TRACE_ID);
+    }
+
+    @Test
+    void rejectsInvalidVersionFf() {
+        assertThat(TraceIdUtils.parseTraceparent("ff-" + TRACE_ID + "-00f067aa0ba902b7-01")).isNull();
+    }
+
+    @Test
+    void rejectsAllZeroIds() {
+        assertThat(TraceIdUtils.parseTraceparent("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isNull();
+        assertThat(TraceIdUtils.parseTraceparent("00-" + TRACE_ID + "-0000000000000000-01")).isNull();
+    }
+
+    @Test
+    void rejectsUppercaseHex() {
+        assertThat(TraceIdUtils.parseTraceparent("00-" + TRACE_ID.toUpperCase() + "-00f067aa0ba902b7-01")).isNull();
+        assertThat(TraceIdUtils.parseTraceparent("00-" + TRACE_ID + "-00F067AA0BA902B7-01")).isNull();
+        assertThat(TraceIdUtils.parseTraceparent("0A-" + TRACE_ID + "-00f067aa0ba902b7-01")).isNull();
+    }
+
+    @Test
+    void rejectsMalformedLayout() {
+        assertThat(TraceIdUtils.parseTraceparent(null)).isNull();
+        assertThat(TraceIdUtils.parseTraceparent("")).isNull();
+        assertThat(TraceIdUtils.parseTraceparent(VALID.substring(0, 54))).isNull();
+        assertThat(TraceIdUtils.parseTraceparent(VALID.replace('-', '_'))).isNull();
+        assertThat(TraceIdUtils.parseTraceparent("00-" + TRACE_ID + "-00f067aa0ba902bz-01")).isNull();
+    }
+
+    @Test
+    void version00MustBeExactLength() {
+        assertThat(TraceIdUtils.parseTraceparent(VALID + "-extra")).isNull();
+        assertThat(TraceIdUtils.parseTraceparent(VALID + "0")).isNull();
+    }
+
+    @Test
+    void futureVersionAcceptsAppendedFields() {
+        String future = "01-" + TRACE_ID + "-00f067aa0ba902b7-01";
+        assertThat(TraceIdUtils.parseTraceparent(future)).isEqualTo(TRACE_ID);
+        assertThat(TraceIdUtils.parseTraceparent(future + "-what-the-future-holds")).isEqualTo(TRACE_ID);
+        // 追加字段必须以'-'分隔
+        assertThat(TraceIdUtils.parseTraceparent(future + "x")).isNull();
+    }
+
+    @Test
+    void generatesDistinctLowerHexTraceIds() {
+        Set<String> traceIds = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String traceId = TraceIdUtils.generate();
+            assertThat(traceId).hasSize(32).matches("[0-9a-f]{32}").isNotEqualTo("00000000000000000000000000000000");
+            traceIds.add(traceId);
+        }
+        assertThat(traceIds).hasSize(10_000);
+    }
+
+    @Test
+    void generatedTraceparentRoundTrips() {
+        String traceId = TraceIdUtils.generate();
+        String traceparent = TraceIdUtils.traceparent(traceId);
+
+        assertThat(traceparent).matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01");
+        assertThat(TraceIdUtils.parseTraceparent(traceparent)).isEqualTo(traceId);
+        assertThat(TraceIdUtils.traceparent("not-a-trace-id")).isNull();
+    }
+}
@@ -0,0 +1,27 @@
+package com.sky.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 虚拟线程支持检测：以实际创建执行器的结果为准
+ */
+class VirtualThreadUtilsTest {
+
+    @Test
+    void supportMatchesRuntime() {
+        assertThat(VirtualThreadUtils.isSupported()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    void unsupportedRuntimeThrowsInsteadOfReturningExecutor() {
+        if (VirtualThreadUtils.isSupported()) {
+            VirtualThreadUtils.newThreadPerTaskExecutor("test-vt-").shutdown();
+            return;
+        }
+        assertThatThrownBy(() -> VirtualThreadUtils.newThreadPerTaskExecutor("test-vt-"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sky.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 按订单状态分组的订单数量
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderStatusCountDTO implements Serializable {
+    //下单日期，按日期分组统计时有值
+    private LocalDate orderDate;
+
+    //订单状态
+    private Integer status;
+
+    //订单数量
+    private Integer orderCount;
+}
@@ -27,4 +27,10 @@ public class OrdersPageQueryDTO implements Serializable {
 
     private Long userId;
 
+    //游标分页：上一页返回的nextCursor，为空表示第一页
+    private String cursor;
+
+    //是否返回估算总数
+    private Boolean withTotal;
+
 }
@@ -0,0 +1,35 @@
+package com.sky.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 营业额日汇总
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnoverDaily implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    //下单日期
+    private LocalDate orderDate;
+
+    //已完成订单营业额
+    private BigDecimal turnover;
+
+    //已完成订单数
+    private Integer orderCount;
+
+    //最后更新时间
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,31 @@
+package com.sky.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日新增用户
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSignupDaily implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    //注册日期
+    private LocalDate signupDate;
+
+    //新增用户数
+    private Integer newUsers;
+
+    //最后更新时间
+    private LocalDateTime updateTime;
+}
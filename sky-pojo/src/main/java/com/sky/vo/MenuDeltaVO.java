@@ -0,0 +1,51 @@
+package com.sky.vo;
+
+import com.sky.entity.Category;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 菜单增量：since版本之后新增或修改的数据整条返回，删除、停售的数据只返回id
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuDeltaVO implements Serializable {
+
+    //同步到的菜单版本号
+    private Long version;
+
+    //为true时无法增量同步，需重新获取完整快照
+    private Boolean fullSync;
+
+    //新增或修改的分类
+    @Builder.Default
+    private List<Category> categories = new ArrayList<>();
+
+    //新增或修改的菜品
+    @Builder.Default
+    private List<DishVO> dishes = new ArrayList<>();
+
+    //新增或修改的套餐
+    @Builder.Default
+    private List<SetmealDetailVO> setmeals = new ArrayList<>();
+
+    //删除或禁用的分类id
+    @Builder.Default
+    private List<Long> removedCategoryIds = new ArrayList<>();
+
+    //删除或停售的菜品id
+    @Builder.Default
+    private List<Long> removedDishIds = new ArrayList<>();
+
+    //删除或停售的套餐id
+    @Builder.Default
+    private List<Long> removedSetmealIds = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package com.sky.vo;
+
+import com.sky.entity.Category;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 完整菜单快照：启用的分类、起售的菜品和套餐，客户端按categoryId分组展示
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSnapshotVO implements Serializable {
+
+    //菜单版本号，增量同步时作为since传入
+    private Long version;
+
+    //启用的分类
+    private List<Category> categories;
+
+    //起售的菜品及口味
+    private List<DishVO> dishes;
+
+    //起售的套餐及其包含的菜品
+    private List<SetmealDetailVO> setmeals;
+}
@@ -0,0 +1,32 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 推送给管理端的订单消息
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPushVO implements Serializable {
+
+    /**
+     * 消息类型 2客户催单（1为来单提醒，本项目没有下单、支付流程，暂不推送）
+     */
+    public static final Integer REMINDER = 2;
+
+    //消息类型
+    private Integer type;
+
+    //订单id
+    private Long orderId;
+
+    //提示内容
+    private String content;
+}
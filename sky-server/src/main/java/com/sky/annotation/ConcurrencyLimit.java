@@ -0,0 +1,20 @@
+package com.sky.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 自适应并发限制，同名的接口共用一个并发上限，超出时快速失败
+ * 用于依赖数据库写入、过载时会占满Tomcat线程的接口
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimit {
+
+    /**
+     * 限流器名称，对应sky.concurrency-limit.limiters的配置
+     */
+    String value();
+}
@@ -0,0 +1,15 @@
+package com.sky.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 幂等接口，请求头带Idempotency-Key时，同一用户同一幂等键只执行一次，重复请求返回首次的响应
+ * 未带请求头时不做处理
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,16 @@
+package com.sky.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 只读方法，方法内的查询在开启读写分离时路由到从库
+ * 已处于读写事务中时仍使用主库
+ * 查询结果会写入缓存的方法不要标注：从库延迟时会把旧数据重新写回刚删除的缓存
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
@@ -0,0 +1,102 @@
+package com.sky.aspect;
+
+import com.sky.annotation.ConcurrencyLimit;
+import com.sky.constant.ErrorCodeConstant;
+import com.sky.constant.MessageConstant;
+import com.sky.exception.ServiceBusyException;
+import com.sky.properties.ConcurrencyLimitProperties;
+import com.sky.ratelimit.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自适应并发限制切面，处理@ConcurrencyLimit接口
+ * <pre>
+ * - 超出并发上限时抛出ServiceBusyException（50301），不进入Service、不占用数据库连接
+ * - 先于幂等切面执行，被拒绝的请求不访问Redis
+ * - sky.concurrency.limit / inflight：当前并发上限、执行中的请求数
+ * - sky.concurrency.rejected：超出上限被拒绝的请求数
+ * </pre>
+ * 以tag name区分限流器
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ConcurrencyLimitAspect {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 启动时创建已配置的限流器，指标从启动起即可查询
+     */
+    @PostConstruct
+    public void init() {
+        concurrencyLimitProperties.getLimiters().keySet().forEach(this::limiterOf);
+    }
+
+    @Around("@annotation(com.sky.annotation.ConcurrencyLimit)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!concurrencyLimitProperties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        ConcurrencyLimit concurrencyLimit = signature.getMethod().getAnnotation(ConcurrencyLimit.class);
+        AdaptiveConcurrencyLimiter limiter = limiterOf(concurrencyLimit.value());
+        if (!limiter.tryAcquire()) {
+            long rejected = limiter.getRejected();
+            // 过载时大量请求被拒绝，日志只记录首次和之后每1000次
+            if (rejected == 1 || rejected % 1000 == 0) {
+                log.warn("{}超出并发上限{}，累计拒绝{}个请求", limiter.getName(), limiter.getLimit(), rejected);
+            }
+            throw new ServiceBusyException(ErrorCodeConstant.SERVICE_BUSY, MessageConstant.SERVICE_BUSY);
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterOf(String name) {
+        return limiters.computeIfAbsent(name, key -> {
+            ConcurrencyLimitProperties.Limiter properties = concurrencyLimitProperties.getLimiters()
+                    .getOrDefault(key, new ConcurrencyLimitProperties.Limiter());
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(key, properties);
+            Gauge.builder("sky.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("当前并发上限")
+                    .tag("name", key)
+                    .register(meterRegistry);
+            Gauge.builder("sky.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .description("执行中的请求数")
+                    .tag("name", key)
+                    .register(meterRegistry);
+            FunctionCounter.builder("sky.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .description("超出并发上限被拒绝的请求数")
+                    .tag("name", key)
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+}
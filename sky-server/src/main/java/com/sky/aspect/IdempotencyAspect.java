@@ -0,0 +1,209 @@
+package com.sky.aspect;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.constant.ErrorCodeConstant;
+import com.sky.constant.MessageConstant;
+import com.sky.constant.RedisKeysConstant;
+import com.sky.context.UserContext;
+import com.sky.exception.IdempotencyException;
+import com.sky.json.JacksonObjectMapper;
+import com.sky.properties.IdempotencyProperties;
+import com.sky.result.Result;
+import com.sky.utils.TraceIdUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 幂等切面，处理@Idempotent接口
+ * <pre>
+ * - 以 用户id + Idempotency-Key 请求头 为key，SET NX写入处理中标记后再执行接口，重复请求不会再进入Service
+ * - 接口正常返回后把响应写入同一个key并延长过期时间，重复请求直接返回该响应，响应头带Idempotent-Replayed
+ * - 处理中收到重复请求返回40903，客户端稍后用同一个幂等键重试即可拿到结果
+ * - 接口抛出异常时删除处理中标记，允许客户端用同一个幂等键重试
+ * - 记录中保存请求指纹（方法、路径、参数的摘要），同一幂等键用于不同请求时返回42201
+ * - Redis不可用时不做幂等处理，直接执行接口
+ * </pre>
+ * 记录格式：处理中为 0:指纹:令牌，已完成为 1:指纹:响应JSON
+ */
+@Aspect
+@Component
+@Slf4j
+public class IdempotencyAspect {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String IN_FLIGHT = "0";
+    private static final String COMPLETED = "1";
+    private static final String SEPARATOR = ":";
+    // md5十六进制长度
+    private static final int FINGERPRINT_LENGTH = 32;
+
+    // 仍是本次请求的处理中标记时写入响应，标记已过期或被其他请求占用时不覆盖
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end return 0", Long.class);
+
+    // 仍是本次请求的处理中标记时删除
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final ObjectMapper objectMapper = new JacksonObjectMapper();
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Around("@annotation(com.sky.annotation.Idempotent)")
+    public Object idempotent(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return joinPoint.proceed();
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        Long userId = UserContext.getCurrentId();
+        if (!StringUtils.hasText(idempotencyKey) || userId == null) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.length() > idempotencyProperties.getMaxKeyLength()) {
+            throw new IdempotencyException(ErrorCodeConstant.IDEMPOTENCY_KEY_INVALID,
+                    MessageConstant.IDEMPOTENCY_KEY_INVALID);
+        }
+
+        String key = RedisKeysConstant.IDEMPOTENCY_KEY + userId + SEPARATOR + idempotencyKey;
+        String fingerprint = fingerprint(request, joinPoint.getArgs());
+        String marker = IN_FLIGHT + SEPARATOR + fingerprint + SEPARATOR + TraceIdUtils.generateSpanId();
+
+        Boolean acquired;
+        try {
+            acquired = stringRedisTemplate.opsForValue().setIfAbsent(key, marker,
+                    idempotencyProperties.getInFlightTtl().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.warn("写入幂等记录失败，跳过幂等处理：{}", e.getMessage());
+            return joinPoint.proceed();
+        }
+        if (!Boolean.TRUE.equals(acquired)) {
+            return replay(key, fingerprint, attributes.getResponse());
+        }
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            release(key, marker);
+            throw e;
+        }
+        complete(key, marker, fingerprint, result);
+        return result;
+    }
+
+    /**
+     * 处理重复请求：已完成时返回首次的响应，否则拒绝
+     * @param key 幂等记录key
+     * @param fingerprint 本次请求的指纹
+     * @param response 当前响应
+     * @return java.lang.Object
+     **/
+    private Object replay(String key, String fingerprint, HttpServletResponse response) {
+        String record = stringRedisTemplate.opsForValue().get(key);
+        // 首次请求失败删除了标记，或记录刚好过期，也按处理中返回，由客户端重试
+        if (record == null || record.length() < FINGERPRINT_LENGTH + 2) {
+            throw new IdempotencyException(ErrorCodeConstant.IDEMPOTENCY_REQUEST_IN_PROGRESS,
+                    MessageConstant.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+        if (!record.startsWith(fingerprint, 2)) {
+            throw new IdempotencyException(ErrorCodeConstant.IDEMPOTENCY_KEY_REUSED,
+                    MessageConstant.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (!record.startsWith(COMPLETED)) {
+            throw new IdempotencyException(ErrorCodeConstant.IDEMPOTENCY_REQUEST_IN_PROGRESS,
+                    MessageConstant.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+        try {
+            Result<?> result = objectMapper.readValue(record.substring(FINGERPRINT_LENGTH + 3), Result.class);
+            if (response != null) {
+                response.setHeader(REPLAYED_HEADER, "true");
+            }
+            log.info("重复请求，返回已完成的响应：{}", key);
+            return result;
+        } catch (JsonProcessingException e) {
+            log.error("解析幂等记录失败：{}", key, e);
+            throw new IdempotencyException(ErrorCodeConstant.IDEMPOTENCY_REQUEST_IN_PROGRESS,
+                    MessageConstant.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+    }
+
+    /**
+     * 接口执行成功，保存响应
+     * 保存失败时处理中标记到期后自动删除，不影响本次返回
+     * @param key 幂等记录key
+     * @param marker 本次请求的处理中标记
+     * @param fingerprint 本次请求的指纹
+     * @param result 接口返回值
+     **/
+    private void complete(String key, String marker, String fingerprint, Object result) {
+        try {
+            String record = COMPLETED + SEPARATOR + fingerprint + SEPARATOR + objectMapper.writeValueAsString(result);
+            stringRedisTemplate.execute(COMPLETE_SCRIPT, Collections.singletonList(key), marker, record,
+                    String.valueOf(idempotencyProperties.getCompletedTtl().toMillis()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("保存幂等响应失败：{}，{}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 接口执行失败，删除处理中标记，允许用同一个幂等键重试
+     * @param key 幂等记录key
+     * @param marker 本次请求的处理中标记
+     **/
+    private void release(String key, String marker) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), marker);
+        } catch (RuntimeException e) {
+            log.warn("删除幂等记录失败：{}，{}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 请求指纹：请求方法、路径与接口参数JSON的md5
+     * @param request 当前请求
+     * @param args 接口参数
+     * @return java.lang.String
+     **/
+    private String fingerprint(HttpServletRequest request, Object[] args) throws JsonProcessingException {
+        List<Object> params = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            if (!(arg instanceof ServletRequest) && !(arg instanceof ServletResponse)) {
+                params.add(arg);
+            }
+        }
+        String source = request.getMethod() + " " + request.getRequestURI() + " " + objectMapper.writeValueAsString(params);
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,22 +1,32 @@
 package com.sky.aspect;
 
 
+import com.sky.exception.BaseException;
+import com.sky.metrics.EndpointMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Aspect
 @Component
 @Slf4j
 public class LogController {
 
+    @Autowired
+    private EndpointMetrics endpointMetrics;
+
     /**
      * 定义切入点：拦截 com.sky.controller 包下所有类的所有方法（包括多级子包）
      */
@@ -24,12 +34,10 @@ public class LogController {
     public void controllerLogPointcut(){}
 
     /**
-     * 环绕通知：记录方法执行时间和日志
+     * 环绕通知：记录方法执行时间和日志，并按URI模板记录接口耗时指标
      */
     @Around("controllerLogPointcut()")
     public Object aroundControllerLog(ProceedingJoinPoint joinPoint) throws Throwable{
-        long startTime = System.currentTimeMillis();
-
         String className = joinPoint.getTarget().getClass().getSimpleName();
         String methodName = joinPoint.getSignature().getName();
         Object[] args = joinPoint.getArgs();
@@ -41,13 +49,19 @@ public class LogController {
 
         Object result;
 
+        // 参数格式化之后再开始计时，指标只包含接口本身的耗时
+        long startTime = System.nanoTime();
         try{
             result = joinPoint.proceed();
         }catch (Throwable e){
+            endpointMetrics.record(uriTemplate(), e instanceof BaseException
+                    ? EndpointMetrics.Outcome.BUSINESS_ERROR : EndpointMetrics.Outcome.ERROR, System.nanoTime() - startTime);
             log.error("【请求异常】{}.{}，异常信息：{}", className, methodName, e.getMessage());
             throw e;
         }
-        Long costTime = System.currentTimeMillis() - startTime;
+        long costNanos = System.nanoTime() - startTime;
+        endpointMetrics.record(uriTemplate(), EndpointMetrics.Outcome.SUCCESS, costNanos);
+        long costTime = TimeUnit.NANOSECONDS.toMillis(costNanos);
 
         // 格式化返回结果，处理大数据量场景
         String resultStr = formatResult(result);
@@ -56,6 +70,17 @@ public class LogController {
         return result;
     }
 
+    /**
+     * 当前请求匹配的URI模板，如/admin/order/complete/{id}
+     */
+    private String uriTemplate() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (String) attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
     /**
      * 格式化返回结果：处理大数据量和敏感信息
      */
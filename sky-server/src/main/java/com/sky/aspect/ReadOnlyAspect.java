@@ -0,0 +1,29 @@
+package com.sky.aspect;
+
+import com.sky.context.ReadOnlyContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 只读切面，在@ReadOnly方法执行期间标记只读上下文
+ * 优先级高于事务切面，保证事务获取连接前已完成标记
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadOnlyAspect {
+
+    @Around("@annotation(com.sky.annotation.ReadOnly) || @within(com.sky.annotation.ReadOnly)")
+    public Object readOnly(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReadOnlyContext.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadOnlyContext.exit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sky.aspect;
+
+import com.sky.context.ContextSnapshot;
+import com.sky.utils.TraceIdUtils;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时任务上下文切面
+ * 每次执行使用新的TraceID、不带当前用户id，结束后还原调度线程的上下文，
+ * 定时任务的日志可以按TraceID串联，且不会残留或继承其他任务的上下文
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ScheduledContextAspect {
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object scheduled(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (ContextSnapshot.Scope ignored = ContextSnapshot.of(TraceIdUtils.generate(), null).restore()) {
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sky.cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 写入时在TTL上增加随机抖动的RedisCacheWriter，其余操作委托给原writer
+ * 同一时刻写入的一批key不会在同一时刻过期，避免集中回源
+ */
+public class JitteredRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final double jitterRatio;
+
+    public JitteredRedisCacheWriter(RedisCacheWriter delegate, double jitterRatio) {
+        this.delegate = delegate;
+        this.jitterRatio = jitterRatio;
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, value, jitter(ttl));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.putIfAbsent(name, key, value, jitter(ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new JitteredRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), jitterRatio);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+
+    /**
+     * TTL随机增加0~jitterRatio倍，不过期的条目保持不变
+     */
+    private Duration jitter(Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative() || jitterRatio <= 0) {
+            return ttl;
+        }
+        long bound = (long) (ttl.toMillis() * jitterRatio);
+        if (bound <= 0) {
+            return ttl;
+        }
+        return ttl.plusMillis(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+}
@@ -0,0 +1,168 @@
+package com.sky.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * 本地 + Redis 两级缓存
+ * <pre>
+ * - 读：先查本地，未命中再查Redis并回填本地
+ * - 写：先写Redis再写本地
+ * - 删除和清空：同时操作两级，并通过invalidationPublisher通知其他节点清除本地条目
+ * - 本地条目有独立的短TTL和数量上限（LRU），通知丢失时旧值最多保留一个本地TTL
+ * </pre>
+ */
+public class TwoLevelCache implements Cache {
+
+    private final RedisCache remote;
+    private final Map<String, LocalEntry> local;
+    private final long localTtlNanos;
+    private final Consumer<String> invalidationPublisher;
+
+    public TwoLevelCache(RedisCache remote, int maxSize, long localTtlNanos, Consumer<String> invalidationPublisher) {
+        this.remote = remote;
+        this.localTtlNanos = localTtlNanos;
+        this.invalidationPublisher = invalidationPublisher;
+        this.local = new LinkedHashMap<String, LocalEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public RedisCache getRemote() {
+        return remote;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        ValueWrapper wrapper = getLocal(localKey);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            putLocal(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = remote.get(key, valueLoader);
+        putLocal(String.valueOf(key), value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        putLocal(String.valueOf(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = String.valueOf(key);
+        evictLocal(localKey);
+        invalidationPublisher.accept(localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        invalidationPublisher.accept(null);
+    }
+
+    /**
+     * 收到其他节点的失效通知时清除本地条目
+     * @param localKey 缓存key，为null时清空本地缓存
+     */
+    public void onInvalidation(String localKey) {
+        if (localKey == null) {
+            clearLocal();
+        } else {
+            evictLocal(localKey);
+        }
+    }
+
+    private ValueWrapper getLocal(String localKey) {
+        synchronized (local) {
+            LocalEntry entry = local.get(localKey);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expireAt >= 0) {
+                local.remove(localKey);
+                return null;
+            }
+            return entry.wrapper;
+        }
+    }
+
+    private void putLocal(String localKey, Object value) {
+        synchronized (local) {
+            local.put(localKey, new LocalEntry(new SimpleValueWrapper(value), System.nanoTime() + localTtlNanos));
+        }
+    }
+
+    private void evictLocal(String localKey) {
+        synchronized (local) {
+            local.remove(localKey);
+        }
+    }
+
+    private void clearLocal() {
+        synchronized (local) {
+            local.clear();
+        }
+    }
+
+    /**
+     * 本地条目及其过期时刻（System.nanoTime）
+     */
+    private static class LocalEntry {
+        private final ValueWrapper wrapper;
+        private final long expireAt;
+
+        LocalEntry(ValueWrapper wrapper, long expireAt) {
+            this.wrapper = wrapper;
+            this.expireAt = expireAt;
+        }
+    }
+}
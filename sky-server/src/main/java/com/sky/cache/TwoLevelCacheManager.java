@@ -0,0 +1,81 @@
+package com.sky.cache;
+
+import com.sky.constant.RedisKeysConstant;
+import com.sky.properties.SkyCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 两级缓存管理器：为RedisCacheManager中的每个缓存包装本地一级缓存
+ * 同时作为失效通知的监听器，消息格式为"缓存名称\nkey"，只有缓存名称时表示清空
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final char SEPARATOR = '\n';
+
+    private final RedisCacheManager remote;
+    private final SkyCacheProperties.Local localProperties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager remote, SkyCacheProperties.Local localProperties,
+                                StringRedisTemplate stringRedisTemplate) {
+        this.remote = remote;
+        this.localProperties = localProperties;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoLevelCache((RedisCache) remoteCache,
+                localProperties.getMaxSize(), localProperties.getTtl().toNanos(), key -> publish(n, key)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(SEPARATOR);
+        String name = index < 0 ? body : body.substring(0, index);
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            cache.onInvalidation(index < 0 ? null : body.substring(index + 1));
+        }
+    }
+
+    /**
+     * 通知所有节点清除本地条目
+     */
+    private void publish(String name, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(RedisKeysConstant.CACHE_INVALIDATION_CHANNEL,
+                    key == null ? name : name + SEPARATOR + key);
+        } catch (Exception e) {
+            log.warn("缓存失效通知发送失败，cache：{}，key：{}，err：{}", name, key, e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package com.sky.config;
 
-import com.sky.utils.TraceIdUtils;
+import com.sky.context.ContextSnapshot;
+import com.sky.context.ReadOnlyContext;
+import com.sky.metrics.ExecutorMetrics;
+import com.sky.properties.ExecutorProperties;
+import com.sky.properties.VirtualThreadProperties;
+import com.sky.utils.VirtualThreadUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 异步任务执行器配置
  *
- * 配置线程池执行器以支持异步任务，并在任务执行时自动传递TraceID
- * 通过包装Runnable任务来实现TraceID的跨线程传递
+ * 配置线程池执行器以支持异步任务，并在任务执行时自动传递TraceID和当前用户id
+ * 通过包装Runnable任务来实现上下文的跨线程传递
  *
  * @author CangQiong
  * @date 2025-12-20
@@ -27,64 +32,139 @@ public class AsyncTaskExecutorConfig {
     /**
      * 配置异步任务执行器
      *
-     * 线程池参数说明：
-     * - corePoolSize: 核心线程数（8个）
-     * - maxPoolSize: 最大线程数（16个）
-     * - queueCapacity: 队列容量（100）
-     * - keepAliveSeconds: 线程空闲保活时间（60秒）
-     * - threadNamePrefix: 线程名称前缀
+     * 线程池参数由sky.executor.async配置：
+     * - corePoolSize: 核心线程数（默认8个）
+     * - maxPoolSize: 最大线程数（默认16个）
+     * - queueCapacity: 队列容量（默认100）
+     * - keepAliveSeconds: 线程空闲保活时间（默认60秒）
+     * - sheddingPolicy: 过载处理策略（默认拒绝），不再由调用者线程执行
+     *
+     * 开启虚拟线程模式且运行在JDK 21及以上时，每个异步任务使用一个新的虚拟线程，
+     * 同时执行与等待的任务数仍按sky.executor.async限制，并注册同样的执行器指标
      *
      * @return Executor 异步任务执行器
      */
     @Bean(name = "asyncExecutor")
-    public Executor asyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    public Executor asyncExecutor(VirtualThreadProperties virtualThreadProperties, ExecutorProperties executorProperties,
+                                  ExecutorMetrics executorMetrics) {
+        if (virtualThreadProperties.isEnabled() && VirtualThreadUtils.isSupported()) {
+            ExecutorProperties.Pool pool = executorProperties.getAsync();
+            BoundedThreadPerTaskExecutor executor = new BoundedThreadPerTaskExecutor("async",
+                    VirtualThreadUtils.newThreadPerTaskExecutor("async-vt-"), pool, new ContextTaskDecorator());
+            executorMetrics.register("async", executor);
+            log.info("Async task executor initialized with virtual threads, max concurrency: {}, queue capacity: {}",
+                    pool.getMaxPoolSize(), pool.getQueueCapacity());
+            return executor;
+        }
+        return newExecutor("async", "async-task-", executorProperties.getAsync(),
+                new ContextTaskDecorator(), executorMetrics);
+    }
 
-        // 线程池配置
-        executor.setCorePoolSize(8);
-        executor.setMaxPoolSize(16);
-        executor.setQueueCapacity(100);
-        executor.setKeepAliveSeconds(60);
-        executor.setThreadNamePrefix("async-task-");
+    /**
+     * 管理端消息推送执行器，WebSocket发送较慢时不占用通用异步线程
+     *
+     * 发送方依赖拒绝异常稍后重新调度，过载处理策略只能为ABORT
+     *
+     * @return Executor 消息推送执行器
+     */
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor(ExecutorProperties executorProperties, ExecutorMetrics executorMetrics) {
+        requireAbort("notification", executorProperties.getNotification());
+        return newExecutor("notification", "notification-task-", executorProperties.getNotification(),
+                new ContextTaskDecorator(), executorMetrics);
+    }
 
-        // 设置拒绝策略为使用调用者线程运行
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    /**
+     * 报表统计执行器，用于按日期分段并行查询
+     *
+     * 线程数默认为4，低于Druid默认最大连接数（8），并行统计不会占满连接池；
+     * 队列满时拒绝，本次统计快速失败，不退化为在请求线程串行执行；
+     * 提交任务时的只读标记随任务传递，分段查询同样路由到从库；
+     * 任务由CompletableFuture.supplyAsync提交，被丢弃的任务永远不会完成，过载处理策略只能为ABORT
+     *
+     * @return Executor 报表统计执行器
+     */
+    @Bean(name = "reportExecutor")
+    public Executor reportExecutor(ExecutorProperties executorProperties, ExecutorMetrics executorMetrics) {
+        requireAbort("report", executorProperties.getReport());
+        return newExecutor("report", "report-task-", executorProperties.getReport(),
+                new ReadOnlyTaskDecorator(), executorMetrics);
+    }
 
-        // 设置任务装饰器，自动传递TraceID
-        executor.setTaskDecorator(new TraceIdTaskDecorator());
+    /**
+     * 缓存、统计数据重建执行器，写操作提交后在此异步重建，不延长写请求的响应时间
+     *
+     * @return Executor 缓存重建执行器
+     */
+    @Bean(name = "cacheRebuildExecutor")
+    public Executor cacheRebuildExecutor(ExecutorProperties executorProperties, ExecutorMetrics executorMetrics) {
+        return newExecutor("cacheRebuild", "cache-rebuild-", executorProperties.getCacheRebuild(),
+                new ContextTaskDecorator(), executorMetrics);
+    }
+
+    /**
+     * 提交方需要感知拒绝的线程池，不允许配置为静默丢弃任务的策略
+     */
+    private static void requireAbort(String name, ExecutorProperties.Pool pool) {
+        if (pool.getSheddingPolicy() != ExecutorProperties.SheddingPolicy.ABORT) {
+            throw new IllegalStateException("sky.executor." + name + ".shedding-policy只能为abort，当前为"
+                    + pool.getSheddingPolicy());
+        }
+    }
+
+    /**
+     * 按配置创建线程池，注册队列、线程和拒绝数指标
+     */
+    private ThreadPoolTaskExecutor newExecutor(String name, String threadNamePrefix, ExecutorProperties.Pool pool,
+                                               TaskDecorator taskDecorator, ExecutorMetrics executorMetrics) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(executorMetrics.sheddingHandler(name, pool.getSheddingPolicy()));
+        executor.setTaskDecorator(taskDecorator);
 
         executor.initialize();
-        log.info("Async task executor initialized with core pool size: 8, max pool size: 16");
+        executorMetrics.register(name, executor.getThreadPoolExecutor());
+        log.info("{} executor initialized with core pool size: {}, max pool size: {}, queue capacity: {}, shedding policy: {}",
+                name, pool.getCorePoolSize(), pool.getMaxPoolSize(), pool.getQueueCapacity(), pool.getSheddingPolicy());
 
         return executor;
     }
 
     /**
-     * 任务装饰器，用于在异步任务执行前后传递和清理TraceID
+     * 任务装饰器，提交任务时捕获TraceID和当前用户id，执行时恢复，结束后还原执行线程原有的上下文
      */
-    @Slf4j
-    public static class TraceIdTaskDecorator implements org.springframework.core.task.TaskDecorator {
+    public static class ContextTaskDecorator implements TaskDecorator {
 
         @Override
         public Runnable decorate(Runnable runnable) {
-            // 获取当前线程的TraceID
-            String traceId = TraceIdUtils.get();
+            return ContextSnapshot.capture().wrap(runnable);
+        }
+    }
+
+    /**
+     * 任务装饰器，在传递TraceID和用户id的基础上传递只读标记
+     */
+    public static class ReadOnlyTaskDecorator extends ContextTaskDecorator {
 
-            // 返回装饰后的Runnable，在执行时恢复TraceID
+        @Override
+        public Runnable decorate(Runnable runnable) {
+            Runnable decorated = super.decorate(runnable);
+            if (!ReadOnlyContext.isReadOnly()) {
+                return decorated;
+            }
             return () -> {
+                ReadOnlyContext.enter();
                 try {
-                    // 在新线程中绑定TraceID
-                    TraceIdUtils.bind(traceId);
-                    log.debug("Restored traceId in async task: {}", traceId);
-
-                    // 执行原始任务
-                    runnable.run();
+                    decorated.run();
                 } finally {
-                    // 任务完成后清理TraceID
-                    TraceIdUtils.clear();
+                    ReadOnlyContext.exit();
                 }
             };
         }
     }
 }
-
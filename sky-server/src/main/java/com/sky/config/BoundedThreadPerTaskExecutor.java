@@ -0,0 +1,134 @@
+package com.sky.config;
+
+import com.sky.properties.ExecutorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界的每任务一线程执行器，用于虚拟线程模式下的asyncExecutor
+ * <pre>
+ * - 与平台线程池使用同一份sky.executor配置：最多max-pool-size个任务同时执行，另有queue-capacity个任务等待
+ * - 等待中的任务已拥有自己的（虚拟）线程，阻塞在信号量上，不占用平台线程
+ * - 执行中与等待中都已满时按shedding-policy拒绝（ABORT）或丢弃（DISCARD）；
+ *   等待中的任务已经启动，无法丢弃最早的任务，不支持DISCARD_OLDEST
+ * </pre>
+ */
+@Slf4j
+public class BoundedThreadPerTaskExecutor implements Executor {
+
+    private final String name;
+    private final ExecutorService threadPerTaskExecutor;
+    private final TaskDecorator taskDecorator;
+    private final ExecutorProperties.SheddingPolicy policy;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+
+    // 已接受（执行中 + 等待中）的任务名额
+    private final Semaphore admitted;
+    private final Semaphore running;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedThreadPerTaskExecutor(String name, ExecutorService threadPerTaskExecutor, ExecutorProperties.Pool pool,
+                                        TaskDecorator taskDecorator) {
+        if (pool.getSheddingPolicy() == ExecutorProperties.SheddingPolicy.DISCARD_OLDEST) {
+            throw new IllegalStateException("sky.executor." + name + ".shedding-policy在虚拟线程模式下不支持discard_oldest");
+        }
+        this.name = name;
+        this.threadPerTaskExecutor = threadPerTaskExecutor;
+        this.taskDecorator = taskDecorator;
+        this.policy = pool.getSheddingPolicy();
+        this.maxConcurrency = Math.max(1, pool.getMaxPoolSize());
+        this.queueCapacity = Math.max(0, pool.getQueueCapacity());
+        this.admitted = new Semaphore(maxConcurrency + queueCapacity);
+        this.running = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            reject();
+            return;
+        }
+        Runnable decorated = taskDecorator == null ? task : taskDecorator.decorate(task);
+        waiting.incrementAndGet();
+        try {
+            threadPerTaskExecutor.execute(() -> run(decorated));
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            admitted.release();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            running.acquireUninterruptibly();
+            waiting.decrementAndGet();
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+                running.release();
+            }
+        } finally {
+            admitted.release();
+        }
+    }
+
+    private void reject() {
+        rejected.increment();
+        long count = rejected.sum();
+        // 过载时每个任务都会被拒绝，日志只记录首次和之后每1000次
+        if (count == 1 || count % 1000 == 0) {
+            log.warn("执行器{}已满，按{}策略处理，累计拒绝{}个任务，执行中：{}，等待中：{}", name, policy, count,
+                    active.get(), waiting.get());
+        }
+        if (policy == ExecutorProperties.SheddingPolicy.ABORT) {
+            throw new RejectedExecutionException("执行器" + name + "已满，任务被拒绝");
+        }
+    }
+
+    /**
+     * 关闭底层执行器，由Spring在销毁Bean时调用
+     */
+    public void shutdown() {
+        threadPerTaskExecutor.shutdown();
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    public int getRemainingCapacity() {
+        return Math.max(0, queueCapacity - waiting.get());
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,115 @@
+package com.sky.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sky.cache.JitteredRedisCacheWriter;
+import com.sky.cache.TwoLevelCache;
+import com.sky.cache.TwoLevelCacheManager;
+import com.sky.constant.RedisKeysConstant;
+import com.sky.properties.SkyCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Spring Cache配置
+ * <pre>
+ * - Redis缓存按sky.cache.ttls配置各自的TTL，写入时随机延长0~jitterRatio，避免集中过期
+ * - 值使用JSON序列化，key前缀为sky:cache:{缓存名称}::
+ * - sky.cache.local.enabled=true时在Redis之上增加本地一级缓存，删除时通过Redis频道通知其他节点
+ * - 缓存读写异常只记录日志，按未命中处理，不影响接口返回
+ * </pre>
+ */
+@Configuration
+@Slf4j
+public class CacheConfiguration implements CachingConfigurer {
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     SkyCacheProperties skyCacheProperties,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer redisMessageListenerContainer) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .computePrefixWith(name -> RedisKeysConstant.CACHE_KEY_PREFIX + name + "::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer()))
+                .entryTtl(skyCacheProperties.getDefaultTtl());
+
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        skyCacheProperties.getTtls().forEach((name, ttl) -> cacheConfigurations.put(name, defaults.entryTtl(ttl)));
+
+        // 整体清空缓存（如分类缓存）时用SCAN分批删除，避免KEYS阻塞Redis
+        RedisCacheWriter cacheWriter = new JitteredRedisCacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory, BatchStrategies.scan(100)),
+                skyCacheProperties.getJitterRatio());
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(defaults)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
+                .build();
+
+        if (!skyCacheProperties.getLocal().isEnabled()) {
+            log.info("Redis缓存管理器初始化完成，缓存：{}", cacheConfigurations.keySet());
+            return redisCacheManager;
+        }
+
+        // 未注册为Bean，需要手动初始化
+        redisCacheManager.afterPropertiesSet();
+        TwoLevelCacheManager twoLevelCacheManager = new TwoLevelCacheManager(redisCacheManager,
+                skyCacheProperties.getLocal(), stringRedisTemplate);
+        redisMessageListenerContainer.addMessageListener(twoLevelCacheManager,
+                new ChannelTopic(RedisKeysConstant.CACHE_INVALIDATION_CHANNEL));
+        log.info("两级缓存管理器初始化完成，缓存：{}，本地TTL：{}", cacheConfigurations.keySet(),
+                skyCacheProperties.getLocal().getTtl());
+        return twoLevelCacheManager;
+    }
+
+    /**
+     * 两级缓存沿用Redis缓存的命中率指标（cache.gets等）
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new RedisCacheMetrics(cache.getRemote(), tags);
+    }
+
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    /**
+     * 缓存值JSON序列化，带类型信息以便反序列化还原实体类型
+     */
+    private GenericJackson2JsonRedisSerializer jsonSerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setTimeZone(TimeZone.getTimeZone("Asia/Shanghai"));
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
@@ -0,0 +1,72 @@
+package com.sky.config;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceBuilder;
+import com.sky.datasource.ReadWriteRoutingDataSource;
+import com.sky.properties.ReplicaDataSourceProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置，sky.datasource.replica.enabled=true时生效
+ *
+ * 主库沿用spring.datasource.druid配置；从库复制主库的连接池参数，只替换连接信息。
+ * 本地验证可以用两个MySQL容器，或引入H2依赖后将从库配置为H2（driver-class-name: org.h2.Driver）并关闭lag-check-enabled
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sky.datasource.replica", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReadWriteDataSourceConfiguration {
+
+    /**
+     * 主库连接池
+     */
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.druid")
+    public DruidDataSource primaryDataSource() {
+        return DruidDataSourceBuilder.create().build();
+    }
+
+    /**
+     * 读写路由数据源
+     */
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DruidDataSource primaryDataSource,
+                                                                 ReplicaDataSourceProperties replicaProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaDataSourceProperties.Node> nodes = replicaProperties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaDataSourceProperties.Node node = nodes.get(i);
+            DruidDataSource replica = primaryDataSource.cloneDruidDataSource();
+            replica.setName("replica-" + i);
+            replica.setUrl(node.getUrl());
+            replica.setUsername(node.getUsername());
+            replica.setPassword(node.getPassword());
+            if (node.getDriverClassName() != null) {
+                replica.setDriverClassName(node.getDriverClassName());
+            }
+            replicas.put(replica.getName(), replica);
+        }
+        log.info("读写分离已开启，从库数量：{}", replicas.size());
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    /**
+     * 对外暴露的数据源：延迟获取连接，保证事务的只读标记在选择数据源前已设置
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
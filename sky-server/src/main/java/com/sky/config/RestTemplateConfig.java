@@ -53,6 +53,8 @@ public class RestTemplateConfig {
 
         private static final String TRACE_ID_HEADER = "X-Trace-Id";
 
+        private static final String TRACEPARENT_HEADER = "traceparent";
+
         @Override
         public ClientHttpResponse intercept(HttpRequest request,
                                            byte[] body,
@@ -63,6 +65,11 @@ public class RestTemplateConfig {
             if (traceId != null && !traceId.isEmpty()) {
                 // 将TraceID添加到请求头
                 request.getHeaders().set(TRACE_ID_HEADER, traceId);
+                // 同时按W3C Trace Context传递，每次调用使用新的span id
+                String traceparent = TraceIdUtils.traceparent(traceId);
+                if (traceparent != null) {
+                    request.getHeaders().set(TRACEPARENT_HEADER, traceparent);
+                }
                 log.debug("Added traceId to RestTemplate request header: {}", traceId);
             }
 
@@ -0,0 +1,36 @@
+package com.sky.config;
+
+import com.sky.utils.VirtualThreadUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 虚拟线程模式，sky.virtual-threads.enabled=true时生效
+ * <pre>
+ * - Tomcat每个请求在一个新的虚拟线程中处理，阻塞在JDBC、Redis、HTTP调用上时不占用平台线程
+ * - 并发上限转由数据库连接池（Druid max-active）等资源决定，等待连接的请求不再占满Tomcat线程池
+ * - 运行在JDK 21以下时记录警告并保持平台线程池
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sky.virtual-threads", name = "enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (!VirtualThreadUtils.isSupported()) {
+                log.warn("已开启虚拟线程模式，但当前JDK {}不支持虚拟线程，Tomcat继续使用平台线程池",
+                        System.getProperty("java.version"));
+                return;
+            }
+            protocolHandler.setExecutor(VirtualThreadUtils.newThreadPerTaskExecutor("tomcat-vt-"));
+            log.info("Tomcat请求处理已切换为虚拟线程");
+        };
+    }
+}
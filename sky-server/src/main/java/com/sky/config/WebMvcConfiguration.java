@@ -2,6 +2,8 @@ package com.sky.config;
 
 import com.sky.interceptor.JwtTokenAdminInterceptor;
 import com.sky.interceptor.JwtTokenUserInterceptor;
+import com.sky.interceptor.MenuETagInterceptor;
+import com.sky.interceptor.RateLimitInterceptor;
 import com.sky.json.JacksonObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +33,12 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
     @Autowired
     private JwtTokenUserInterceptor jwtTokenUserInterceptor;
 
+    @Autowired
+    private MenuETagInterceptor menuETagInterceptor;
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
     /**
      * 注册自定义拦截器
      *
@@ -47,6 +55,15 @@ public class WebMvcConfiguration extends WebMvcConfigurationSupport {
                 .addPathPatterns("/user/**")
                 .excludePathPatterns("/user/user/login"
                 ,"/user/shop/status");
+
+        // 在jwt校验之后，已登录的请求可以按用户id限流；具体限流的路径由sky.rate-limit.rules配置
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/user/**");
+
+        // 在jwt校验之后，未登录的请求不会拿到304
+        registry.addInterceptor(menuETagInterceptor)
+                .addPathPatterns("/user/category/list", "/user/dish/list", "/user/setmeal/list",
+                        "/user/setmeal/listWithDishes", "/user/setmeal/dish/**", "/user/menu/snapshot");
     }
 
     /**
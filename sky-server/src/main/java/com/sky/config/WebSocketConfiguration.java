@@ -0,0 +1,51 @@
+package com.sky.config;
+
+import com.sky.constant.RedisKeysConstant;
+import com.sky.websocket.AdminTokenHandshakeInterceptor;
+import com.sky.websocket.OrderPushMessageListener;
+import com.sky.websocket.OrderWebSocketHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * WebSocket配置，注册管理端订单推送端点并订阅Redis推送频道
+ */
+@Configuration
+@EnableWebSocket
+@Slf4j
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    @Autowired
+    private OrderWebSocketHandler orderWebSocketHandler;
+
+    @Autowired
+    private AdminTokenHandshakeInterceptor adminTokenHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        log.info("注册管理端订单推送WebSocket端点...");
+        registry.addHandler(orderWebSocketHandler, "/ws/admin/order")
+                .addInterceptors(adminTokenHandshakeInterceptor)
+                .setAllowedOriginPatterns("*");
+    }
+
+    /**
+     * Redis订阅容器，接收其他节点发布的订单推送消息
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       OrderPushMessageListener orderPushMessageListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(orderPushMessageListener, new ChannelTopic(RedisKeysConstant.ORDER_PUSH_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,75 @@
+package com.sky.controller.admin;
+
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.result.CursorPageResult;
+import com.sky.result.Result;
+import com.sky.service.OrderService;
+import com.sky.vo.OrderStatisticsVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * 订单管理
+ */
+@RestController("adminOrderController")
+@RequestMapping("/admin/order")
+@Tag(name = "订单管理接口")
+@Slf4j
+public class OrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * 订单搜索（游标分页）
+     * @param ordersPageQueryDTO 查询条件，翻页时传入上一页返回的nextCursor
+     * @return com.sky.result.Result<com.sky.result.CursorPageResult>
+     **/
+    @GetMapping("/conditionSearch")
+    @Operation(summary = "订单搜索")
+    public Result<CursorPageResult> conditionSearch(OrdersPageQueryDTO ordersPageQueryDTO) {
+        CursorPageResult pageResult = orderService.conditionSearch(ordersPageQueryDTO);
+        return Result.success(pageResult);
+    }
+
+    /**
+     * 完成订单
+     * @param id 订单id
+     * @return com.sky.result.Result<java.lang.String>
+     **/
+    @PutMapping("/complete/{id}")
+    @Operation(summary = "完成订单")
+    public Result<String> complete(@PathVariable("id") Long id) {
+        orderService.complete(id);
+        return Result.success();
+    }
+
+    /**
+     * 各状态订单数量统计，默认统计最近7天下单的订单
+     * @param begin 下单开始日期
+     * @param end 下单结束日期
+     * @return com.sky.result.Result<com.sky.vo.OrderStatisticsVO>
+     **/
+    @GetMapping("/statistics")
+    @Operation(summary = "各状态订单数量统计")
+    public Result<OrderStatisticsVO> statistics(@DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+                                                @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        if (end == null) {
+            end = LocalDate.now();
+        }
+        if (begin == null) {
+            begin = end.minusDays(6);
+        }
+        return Result.success(orderService.statistics(begin, end));
+    }
+}
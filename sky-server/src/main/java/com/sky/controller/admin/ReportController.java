@@ -0,0 +1,143 @@
+package com.sky.controller.admin;
+
+import com.sky.result.Result;
+import com.sky.service.ReportService;
+import com.sky.service.SalesRankingService;
+import com.sky.vo.OrderReportVO;
+import com.sky.vo.SalesTop10ReportVO;
+import com.sky.vo.TurnoverReportVO;
+import com.sky.vo.UserReportVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+
+/**
+ * 数据统计
+ */
+@RestController
+@RequestMapping("/admin/report")
+@Tag(name = "数据统计相关接口")
+@Slf4j
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    /**
+     * 营业额统计
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @return com.sky.result.Result<com.sky.vo.TurnoverReportVO>
+     **/
+    @GetMapping("/turnoverStatistics")
+    @Operation(summary = "营业额统计")
+    public Result<TurnoverReportVO> turnoverStatistics(
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.getTurnoverStatistics(begin, end));
+    }
+
+    /**
+     * 用户统计
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @return com.sky.result.Result<com.sky.vo.UserReportVO>
+     **/
+    @GetMapping("/userStatistics")
+    @Operation(summary = "用户统计")
+    public Result<UserReportVO> userStatistics(
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.getUserStatistics(begin, end));
+    }
+
+    /**
+     * 从user表回填每日新增用户，不传日期时回填全部历史，今天的数据不回填
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @return com.sky.result.Result<java.lang.String>
+     **/
+    @PostMapping("/userStatistics/backfill")
+    @Operation(summary = "回填每日新增用户")
+    public Result<String> backfillUserStatistics(
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        reportService.backfillUserSignups(begin, end);
+        return Result.success();
+    }
+
+    /**
+     * 订单统计
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @return com.sky.result.Result<com.sky.vo.OrderReportVO>
+     **/
+    @GetMapping("/ordersStatistics")
+    @Operation(summary = "订单统计")
+    public Result<OrderReportVO> ordersStatistics(
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.getOrderStatistics(begin, end));
+    }
+
+    /**
+     * 销量排名top10
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @return com.sky.result.Result<com.sky.vo.SalesTop10ReportVO>
+     **/
+    @GetMapping("/top10")
+    @Operation(summary = "销量排名top10")
+    public Result<SalesTop10ReportVO> top10(
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(salesRankingService.getSalesTop10(begin, end));
+    }
+
+    /**
+     * 从数据库重建销量排名
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @return com.sky.result.Result<java.lang.String>
+     **/
+    @PostMapping("/top10/rebuild")
+    @Operation(summary = "重建销量排名")
+    public Result<String> rebuildTop10(
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        salesRankingService.rebuild(begin, end);
+        return Result.success();
+    }
+
+    /**
+     * 导出订单明细Excel，默认导出最近30天（不含今天）
+     * @param begin 开始日期
+     * @param end 结束日期
+     * @param response HTTP响应
+     **/
+    @GetMapping("/export")
+    @Operation(summary = "导出订单明细")
+    public void export(@DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+                       @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end,
+                       HttpServletResponse response) {
+        if (end == null) {
+            end = LocalDate.now().minusDays(1);
+        }
+        if (begin == null) {
+            begin = end.minusDays(29);
+        }
+        reportService.exportOrders(begin, end, response);
+    }
+}
@@ -11,7 +11,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -58,7 +57,6 @@ public class SetmealController {
      * @return com.sky.result.Result<java.lang.String>
      **/
     @PutMapping
-    @CacheEvict(cacheNames = "setmealCache",allEntries = true)
     @Operation(summary = "修改套餐信息")
     public Result<String> update(@RequestBody SetmealDTO setmealDTO) {
         log.info("更新套餐：{}",setmealDTO);
@@ -73,7 +71,6 @@ public class SetmealController {
      * @return com.sky.result.Result<java.lang.String>
      **/
     @PostMapping("/status/{status}")
-    @CacheEvict(cacheNames = "setmealCache",allEntries = true)
     @Operation(summary = "起售和禁售套餐")
     public Result<String> startAndStop(@PathVariable Integer status,Long id) {
         log.info("起售和禁售套餐：{},{}",status,id);
@@ -87,7 +84,6 @@ public class SetmealController {
      * @return com.sky.result.Result<java.lang.String>
      **/
     @DeleteMapping
-    @CacheEvict(cacheNames = "setmealCache",allEntries = true)
     @Operation(summary = "根据ID批量删除套餐")
     public Result<String> delete(@RequestParam List<Long> ids) {
         log.info("删除套餐：{}",ids);
@@ -101,7 +97,6 @@ public class SetmealController {
      * @return com.sky.result.Result<java.lang.String>
      **/
     @PostMapping
-    @CacheEvict(cacheNames = "setmealCache",key = "#setmealDTO.categoryId")
     @Operation(summary = "新增套餐")
     public Result<String> save(@RequestBody SetmealDTO setmealDTO) {
         log.info("新增套餐：{}",setmealDTO);
@@ -0,0 +1,68 @@
+package com.sky.controller.admin;
+
+import com.sky.result.Result;
+import com.sky.service.WorkspaceService;
+import com.sky.vo.BusinessDataVO;
+import com.sky.vo.DishOverViewVO;
+import com.sky.vo.OrderOverViewVO;
+import com.sky.vo.SetmealOverViewVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 工作台
+ */
+@RestController
+@RequestMapping("/admin/workspace")
+@Tag(name = "工作台相关接口")
+@Slf4j
+public class WorkspaceController {
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    /**
+     * 今日运营数据
+     * @return com.sky.result.Result<com.sky.vo.BusinessDataVO>
+     **/
+    @GetMapping("/businessData")
+    @Operation(summary = "今日运营数据")
+    public Result<BusinessDataVO> businessData() {
+        return Result.success(workspaceService.getBusinessData());
+    }
+
+    /**
+     * 订单概览
+     * @return com.sky.result.Result<com.sky.vo.OrderOverViewVO>
+     **/
+    @GetMapping("/overviewOrders")
+    @Operation(summary = "订单概览")
+    public Result<OrderOverViewVO> orderOverView() {
+        return Result.success(workspaceService.getOrderOverView());
+    }
+
+    /**
+     * 菜品总览
+     * @return com.sky.result.Result<com.sky.vo.DishOverViewVO>
+     **/
+    @GetMapping("/overviewDishes")
+    @Operation(summary = "菜品总览")
+    public Result<DishOverViewVO> dishOverView() {
+        return Result.success(workspaceService.getDishOverView());
+    }
+
+    /**
+     * 套餐总览
+     * @return com.sky.result.Result<com.sky.vo.SetmealOverViewVO>
+     **/
+    @GetMapping("/overviewSetmeals")
+    @Operation(summary = "套餐总览")
+    public Result<SetmealOverViewVO> setmealOverView() {
+        return Result.success(workspaceService.getSetmealOverView());
+    }
+}
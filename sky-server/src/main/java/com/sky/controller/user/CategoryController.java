@@ -26,6 +26,7 @@ public class CategoryController {
 
     /**
      * 根据分类类型查询分类列表
+     * 菜单未变化时由MenuETagInterceptor直接返回304
      * @param type 分类类型
      * @return 分类列表
      */
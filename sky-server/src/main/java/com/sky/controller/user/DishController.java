@@ -3,6 +3,7 @@ package com.sky.controller.user;
 
 import com.sky.constant.RedisKeysConstant;
 import com.sky.entity.Dish;
+import com.sky.metrics.CacheMetrics;
 import com.sky.result.Result;
 import com.sky.service.DishService;
 import com.sky.vo.DishVO;
@@ -27,6 +28,9 @@ public class DishController {
     @Autowired
     private DishService dishService;
 
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
 
     @GetMapping("/list")
     @Operation(summary = "依据categoryId获取菜品列表")
@@ -39,7 +43,8 @@ public class DishController {
             log.info("从缓存中获取菜品列表，categoryId：{}", categoryId);
             return Result.success(dishCaches);
         }
-        List<DishVO> dishVOs = dishService.listDishesByCategoryId(categoryId);
+        List<DishVO> dishVOs = cacheMetrics.recordLoad(CacheMetrics.DISH_CACHE,
+                () -> dishService.listDishesByCategoryId(categoryId));
         dishService.setDishCacheByKey(dishKey, dishVOs);
 
         return Result.success(dishVOs);
@@ -0,0 +1,70 @@
+package com.sky.controller.user;
+
+import com.sky.result.Result;
+import com.sky.service.MenuService;
+import com.sky.vo.MenuDeltaVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@RestController("userMenuController")
+@RequestMapping("/user/menu")
+@Tag(name = "用户端-菜单同步接口")
+@Slf4j
+public class MenuController {
+
+    @Autowired
+    private MenuService menuService;
+
+    /**
+     * 完整菜单快照，一次返回分类、菜品、套餐
+     * 响应体为预先gzip压缩的JSON，菜单未变化时由MenuETagInterceptor直接返回304
+     * @param webRequest
+     * @param response
+     */
+    @GetMapping("/snapshot")
+    @Operation(summary = "完整菜单快照")
+    public void snapshot(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        MenuService.CompressedSnapshot snapshot = menuService.getSnapshot();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(snapshot.getGzipJson().length);
+            response.getOutputStream().write(snapshot.getGzipJson());
+        } else {
+            // 极少数不支持gzip的客户端，解压后返回
+            try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipJson()))) {
+                StreamUtils.copy(json, response.getOutputStream());
+            }
+        }
+    }
+
+    /**
+     * 菜单增量同步
+     * @param since 客户端已有的菜单版本号
+     * @return fullSync为true时需重新获取完整快照
+     */
+    @GetMapping("/delta")
+    @Operation(summary = "菜单增量同步")
+    public Result<MenuDeltaVO> delta(@RequestParam Long since) {
+        return Result.success(menuService.getDelta(since));
+    }
+}
@@ -0,0 +1,37 @@
+package com.sky.controller.user;
+
+import com.sky.annotation.Idempotent;
+import com.sky.result.Result;
+import com.sky.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController("userOrderController")
+@RequestMapping("/user/order")
+@Tag(name = "用户端-订单相关接口")
+@Slf4j
+public class OrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * 客户催单
+     * 带Idempotency-Key时网络重试不会重复推送催单消息
+     * @param id 订单id
+     * @return com.sky.result.Result<java.lang.String>
+     **/
+    @GetMapping("/reminder/{id}")
+    @Operation(summary = "客户催单")
+    @Idempotent
+    public Result<String> reminder(@PathVariable("id") Long id) {
+        orderService.reminder(id);
+        return Result.success();
+    }
+}
@@ -4,6 +4,7 @@ import com.sky.entity.Setmeal;
 import com.sky.result.Result;
 import com.sky.service.SetmealService;
 import com.sky.vo.DishItemVO;
+import com.sky.vo.SetmealDetailVO;
 import com.sky.vo.SetmealVO;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,7 +12,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.cache.annotation.Cacheable;
 
 import java.util.List;
 
@@ -26,17 +26,28 @@ public class SetmealController {
 
     /**
      * 获取套餐列表及其包含的菜品信息
+     * 结果在SetmealService中按分类缓存
      * @return 套餐列表
      */
     @GetMapping("/list")
     @Operation(summary = "获取套餐列表及其包含的菜品信息")
-    @Cacheable(cacheNames = "setmealCache", key = "#categoryId")
     public Result<List<Setmeal>> listSetmeals(@RequestParam Long categoryId){
         List<Setmeal> setmeals = setmealService.listSetmealByCategoryId(categoryId);
 
         return Result.success(setmeals);
     }
 
+    /**
+     * 获取分类下的套餐及每个套餐包含的菜品，替代list + 逐个调用dish/{id}
+     * @param categoryId 分类id
+     * @return 套餐及菜品列表
+     */
+    @GetMapping("/listWithDishes")
+    @Operation(summary = "获取分类下的套餐及其包含的菜品")
+    public Result<List<SetmealDetailVO>> listSetmealsWithDishes(@RequestParam Long categoryId){
+        return Result.success(setmealService.listSetmealDetailByCategoryId(categoryId));
+    }
+
     @GetMapping("/dish/{id}")
     @Operation(summary = "依据套餐id获取套餐内菜品信息")
     public Result<List<DishItemVO>> dishList(@PathVariable("id") Long id){
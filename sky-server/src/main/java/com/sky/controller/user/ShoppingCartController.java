@@ -1,6 +1,8 @@
 package com.sky.controller.user;
 
 
+import com.sky.annotation.ConcurrencyLimit;
+import com.sky.annotation.Idempotent;
 import com.sky.dto.ShoppingCartDTO;
 import com.sky.entity.ShoppingCart;
 import com.sky.result.Result;
@@ -22,11 +24,14 @@ public class ShoppingCartController {
 
     /**
      * 添加购物车
+     * 带Idempotency-Key时网络重试不会重复累加商品数量
      * @param shoppingCartDTO
      * @return
      */
     @PostMapping("/add")
     @Operation(summary = "添加购物车")
+    @ConcurrencyLimit("checkout")
+    @Idempotent
     public Result<String> addCart(@RequestBody ShoppingCartDTO shoppingCartDTO){
         shoppingCartService.addShoppingCart(shoppingCartDTO);
         return Result.success("添加购物车成功");
@@ -49,6 +54,7 @@ public class ShoppingCartController {
      */
     @DeleteMapping("/clean")
     @Operation(summary = "清空购物车商品")
+    @ConcurrencyLimit("checkout")
     public Result<String> clean(){
         shoppingCartService.cleanShoppingCart();
         return Result.success();
@@ -0,0 +1,189 @@
+package com.sky.datasource;
+
+import com.sky.context.ReadOnlyContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源
+ * <pre>
+ * - 只读事务（@Transactional(readOnly = true)）或@ReadOnly方法内、且不在读写事务中的访问路由到从库
+ * - 多个从库轮询；复制延迟超限或获取连接失败的从库暂停使用，全部不可用时回退主库
+ * - 需包装在LazyConnectionDataSourceProxy中使用，事务开始时尚未设置只读标记，延迟到执行第一条SQL时再选择数据源
+ * </pre>
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = new ArrayList<>(replicas.keySet());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String name = isReadRequest() ? selectReplica() : null;
+        if (name != null) {
+            try {
+                return replicas.get(name).getConnection();
+            } catch (SQLException e) {
+                markUnavailable(name, "获取连接失败：" + e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String name = isReadRequest() ? selectReplica() : null;
+        if (name != null) {
+            try {
+                return replicas.get(name).getConnection(username, password);
+            } catch (SQLException e) {
+                markUnavailable(name, "获取连接失败：" + e.getMessage());
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 从库连接池，名称 -> 数据源
+     */
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    /**
+     * 检测所有从库的复制延迟，恢复或暂停从库
+     * @param maxLagSeconds 允许的最大延迟（秒）
+     * @param lagCheckEnabled 为false时只检查连接是否可用
+     */
+    public void checkReplicas(long maxLagSeconds, boolean lagCheckEnabled) {
+        for (String name : replicaNames) {
+            try (Connection connection = replicas.get(name).getConnection();
+                 Statement statement = connection.createStatement()) {
+                if (!lagCheckEnabled) {
+                    statement.execute("SELECT 1");
+                    markAvailable(name);
+                    continue;
+                }
+                Long lag = queryLag(statement);
+                if (lag == null) {
+                    markUnavailable(name, "复制未运行");
+                } else if (lag > maxLagSeconds) {
+                    markUnavailable(name, "复制延迟" + lag + "秒");
+                } else {
+                    markAvailable(name);
+                }
+            } catch (SQLException e) {
+                markUnavailable(name, "检测失败：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 关闭从库连接池，主库由其自身的Bean关闭
+     */
+    public void close() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica).close();
+                } catch (Exception e) {
+                    log.warn("从库连接池关闭失败，err：{}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 是否为只读访问：读写事务中始终走主库
+     */
+    private boolean isReadRequest() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return ReadOnlyContext.isReadOnly();
+    }
+
+    /**
+     * 轮询选择可用从库，无可用从库返回null
+     */
+    private String selectReplica() {
+        int size = replicaNames.size();
+        int start = counter.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (!unavailable.contains(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查询复制延迟（秒）
+     * 结果为空说明该库不是从库（如本地单独启动的MySQL），按无延迟处理；延迟为NULL说明复制未运行
+     */
+    private Long queryLag(Statement statement) throws SQLException {
+        ResultSet resultSet;
+        try {
+            resultSet = statement.executeQuery("SHOW REPLICA STATUS");
+        } catch (SQLException e) {
+            // MySQL 8.0.22之前的版本
+            resultSet = statement.executeQuery("SHOW SLAVE STATUS");
+        }
+        try (ResultSet rs = resultSet) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                for (String column : LAG_COLUMNS) {
+                    if (column.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                        long lag = rs.getLong(i);
+                        return rs.wasNull() ? null : lag;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private void markUnavailable(String name, String reason) {
+        if (unavailable.add(name)) {
+            log.warn("从库{}暂停使用，读请求回退主库，原因：{}", name, reason);
+        }
+    }
+
+    private void markAvailable(String name) {
+        if (unavailable.remove(name)) {
+            log.info("从库{}恢复使用", name);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.sky.filter;
 
+import com.sky.context.UserContext;
+import com.sky.utils.TraceIdUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -9,15 +11,14 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.UUID;
 
 /**
  * TraceID过滤器 - 企业级实现
  * 为每个HTTP请求生成唯一的TraceID，并通过MDC机制传递到日志系统
  *
  * 功能：
- * 1. 检查请求头中是否存在X-Trace-Id
- * 2. 若不存在则生成新的UUID格式的TraceID
+ * 1. 依次从W3C traceparent、X-Trace-Id请求头中获取TraceID
+ * 2. 若不存在则生成新的32位十六进制TraceID（与W3C trace-id格式一致）
  * 3. 将TraceID存入MDC供日志框架使用（在整个请求生命周期中保持）
  * 4. 将TraceID添加到响应头便于客户端追踪
  * 5. 支持异步任务和后续操作获取TraceID
@@ -63,6 +64,11 @@ public class TraceIdFilter extends OncePerRequestFilter {
      */
     private static final String TRACE_ID_HEADER = "X-Trace-Id";
 
+    /**
+     * W3C Trace Context请求头
+     */
+    private static final String TRACEPARENT_HEADER = "traceparent";
+
     /**
      * MDC中TraceID的键名
      */
@@ -79,24 +85,19 @@ public class TraceIdFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        // 从请求头获取TraceID
-        String traceId = request.getHeader(TRACE_ID_HEADER);
-        boolean isNewTraceId = false;
-
-        if (traceId == null || traceId.isEmpty()) {
-            // 生成新的TraceID：UUID格式，去除中划线使其更紧凑
-            // 生成的TraceID格式: 32个字符的十六进制字符串
-            traceId = UUID.randomUUID().toString().replace("-", "");
-            isNewTraceId = true;
-            log.debug("Generated new TraceID: {}", traceId);
-        } else {
-            log.debug("Received TraceID from request header: {}", traceId);
+        // 优先使用W3C traceparent，其次X-Trace-Id，都没有时生成
+        String traceId = TraceIdUtils.parseTraceparent(request.getHeader(TRACEPARENT_HEADER));
+        if (traceId == null) {
+            traceId = request.getHeader(TRACE_ID_HEADER);
+        }
+        boolean isNewTraceId = traceId == null || traceId.isEmpty();
+        if (isNewTraceId) {
+            traceId = TraceIdUtils.generate();
         }
 
         try {
             // 步骤1: 将TraceID放入MDC
             MDC.put(TRACE_ID_KEY, traceId);
-            log.debug("TraceID bound to MDC: {} (isNew: {})", traceId, isNewTraceId);
 
             // 步骤2: 将TraceID添加到响应头
             // 客户端可以通过响应头获取TraceID，便于端到端追踪
@@ -109,10 +110,12 @@ public class TraceIdFilter extends OncePerRequestFilter {
             // 步骤4: 继续执行过滤链
             // 此时所有业务处理（Service/Controller）都将使用此TraceID
             // 异步任务会自动继承此TraceID（通过TaskDecorator）
-            // 微服务调用会自动添加X-Trace-Id请求头（通过RestTemplate拦截器）
-            log.debug("Entering filter chain with TraceID: {}", traceId);
+            // 微服务调用会自动添加X-Trace-Id、traceparent请求头（通过RestTemplate拦截器）
+            // 每个请求都会经过此处，只保留一条debug日志
+            if (log.isDebugEnabled()) {
+                log.debug("TraceID bound to MDC: {} (isNew: {})", traceId, isNewTraceId);
+            }
             filterChain.doFilter(request, response);
-            log.debug("Exiting filter chain with TraceID: {}", traceId);
 
         } finally {
             // 步骤5: 清理MDC
@@ -127,10 +130,8 @@ public class TraceIdFilter extends OncePerRequestFilter {
 
             MDC.remove(TRACE_ID_KEY);
 
-            // 可选：同时清理可能的其他MDC值，防止线程池复用时的信息污染
-            // 注意：这里使用remove而不是clear，只清理traceId，保留其他业务上下文
-
-            log.debug("TraceID removed from MDC: {}", traceId);
+            // 同时清除当前用户id：jwt拦截器未执行afterCompletion（如异常提前结束）时也不会残留到下一个请求
+            UserContext.removeCurrentId();
         }
     }
 
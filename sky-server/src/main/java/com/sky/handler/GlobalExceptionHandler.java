@@ -24,7 +24,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler
     public Result exceptionHandler(BaseException ex){
         log.error("异常信息：{}", ex.getMessage());
-        return Result.error(ex.getMessage());
+        return Result.error(ex.getCode(), ex.getMessage());
     }
     /**
      * 捕获SQL唯一约束异常
@@ -60,4 +60,17 @@ public class JwtTokenAdminInterceptor implements HandlerInterceptor {
             return false;
         }
     }
+
+    /**
+     * 请求结束后清除当前员工id
+     * Tomcat平台线程会被复用，不清除时下一个请求可能读到上一个请求的id；虚拟线程模式下线程随请求结束，同样清除
+     *
+     * @param request
+     * @param response
+     * @param handler
+     * @param ex
+     */
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        UserContext.removeCurrentId();
+    }
 }
@@ -0,0 +1,59 @@
+package com.sky.interceptor;
+
+import com.sky.service.MenuVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 用户端菜单读接口的条件请求拦截器
+ * <pre>
+ * - 以菜单版本号作为ETag，客户端If-None-Match与当前版本一致时直接返回304，不进入Controller、不做JSON序列化
+ * - 使用弱ETag：Tomcat对带强ETag的响应不做压缩
+ * - Cache-Control: no-cache，客户端可以缓存但每次都需带ETag重新验证
+ * </pre>
+ */
+@Component
+@Slf4j
+public class MenuETagInterceptor implements HandlerInterceptor {
+
+    private static final String ETAG_PREFIX = "W/\"menu-";
+
+    @Autowired
+    private MenuVersionService menuVersionService;
+
+    /**
+     * 菜单未变化时返回304
+     *
+     * @param request
+     * @param response
+     * @param handler
+     * @return
+     */
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        // 先取版本号再由Controller查数据：版本号在事务提交后才递增，且这些接口查主库，读到的数据不旧于该版本；
+        // 并发请求写回缓存的旧数据由MenuVersionServiceImpl的延迟复查清除，复查之后才递增版本号
+        Long menuVersion = menuVersionService.currentVersion();
+        if (menuVersion == null) {
+            // Redis不可用时不做条件请求，正常返回完整数据
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(ETAG_PREFIX + menuVersion + "\"")) {
+            log.debug("菜单未变化，返回304：{}", request.getRequestURI());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+package com.sky.interceptor;
+
+import com.sky.constant.ErrorCodeConstant;
+import com.sky.constant.MessageConstant;
+import com.sky.context.UserContext;
+import com.sky.json.JacksonObjectMapper;
+import com.sky.properties.RateLimitProperties;
+import com.sky.ratelimit.TokenBucketRateLimiter;
+import com.sky.result.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户端接口限流拦截器
+ * 按配置的路径规则匹配请求，以用户id或客户端IP为限流对象，超出限额时返回429和Retry-After
+ * 在jwt校验之后执行，登录接口等未登录的请求按IP限流
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final UrlPathHelper URL_PATH_HELPER = UrlPathHelper.defaultInstance;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final JacksonObjectMapper objectMapper = new JacksonObjectMapper();
+
+    // 未配置client-ip-header且远端地址为内网地址时只提示一次
+    private final AtomicBoolean proxyWarned = new AtomicBoolean(false);
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private TokenBucketRateLimiter tokenBucketRateLimiter;
+
+    /**
+     * 取得令牌后放行，否则拒绝请求
+     *
+     * @param request
+     * @param response
+     * @param handler
+     * @return
+     * @throws IOException
+     */
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!rateLimitProperties.isEnabled() || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String path = lookupPath(request);
+        RateLimitProperties.Rule rule = match(path);
+        if (rule == null) {
+            return true;
+        }
+
+        String key = keyOf(rule, request);
+        if (tokenBucketRateLimiter.tryAcquire(rule, key)) {
+            return true;
+        }
+
+        log.debug("请求被限流，规则：{}，对象：{}，路径：{}", rule.getName(), key, path);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(tokenBucketRateLimiter.retryAfterSeconds(rule)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(
+                Result.error(ErrorCodeConstant.TOO_MANY_REQUESTS, MessageConstant.TOO_MANY_REQUESTS)));
+        return false;
+    }
+
+    /**
+     * 与Spring MVC匹配处理器时相同的路径：去掉contextPath、解码、去掉;参数，
+     * 再去掉末尾的/（默认的尾斜杠匹配会把/user/user/login/交给/user/user/login的处理器）
+     * @param request 当前请求
+     * @return java.lang.String
+     */
+    private static String lookupPath(HttpServletRequest request) {
+        String path = URL_PATH_HELPER.getLookupPathForRequest(request);
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(0, end);
+    }
+
+    /**
+     * 按顺序返回第一个匹配的规则
+     * @param path 请求路径
+     * @return com.sky.properties.RateLimitProperties.Rule
+     */
+    private RateLimitProperties.Rule match(String path) {
+        for (RateLimitProperties.Rule rule : rateLimitProperties.getRules()) {
+            for (String pattern : rule.getPathPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return rule;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 限流对象：按用户限流且已登录时为用户id，否则为客户端IP
+     * @param rule 限流规则
+     * @param request 当前请求
+     * @return java.lang.String
+     */
+    private String keyOf(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        Long userId = UserContext.getCurrentId();
+        if (rule.getKeyType() == RateLimitProperties.KeyType.USER && userId != null) {
+            return "user:" + userId;
+        }
+        String ip = null;
+        String header = rateLimitProperties.getClientIpHeader();
+        if (StringUtils.hasText(header)) {
+            ip = request.getHeader(header);
+        }
+        if (!StringUtils.hasText(ip)) {
+            ip = request.getRemoteAddr();
+            if (!StringUtils.hasText(header)) {
+                warnIfBehindProxy(ip);
+            }
+        }
+        return "ip:" + ip.trim();
+    }
+
+    /**
+     * 远端地址为内网或本机地址时，请求大多经过nginx等代理转发，所有客户端会共用代理的IP限额
+     * @param remoteAddr 连接的远端地址
+     */
+    private void warnIfBehindProxy(String remoteAddr) {
+        if (proxyWarned.get() || !isPrivateAddress(remoteAddr)) {
+            return;
+        }
+        if (proxyWarned.compareAndSet(false, true)) {
+            log.warn("按IP限流的请求来自内网地址{}，可能经过代理转发，所有客户端将共用该地址的限额；"
+                    + "请配置sky.rate-limit.client-ip-header为代理写入的请求头（如X-Real-IP）", remoteAddr);
+        }
+    }
+
+    private static boolean isPrivateAddress(String ip) {
+        // 只对IP字面量判断，不做DNS解析
+        if (!StringUtils.hasText(ip) || !(ip.indexOf(':') >= 0 || Character.isDigit(ip.charAt(0)))) {
+            return false;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(ip);
+            byte[] bytes = address.getAddress();
+            return address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                    // IPv6唯一本地地址 fc00::/7
+                    || (bytes.length == 16 && (bytes[0] & 0xFE) == 0xFC);
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
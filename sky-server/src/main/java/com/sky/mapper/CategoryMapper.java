@@ -8,7 +8,11 @@ import com.sky.enumeration.OperationType;
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -20,6 +24,7 @@ public interface CategoryMapper {
     @Insert("insert into category (name,type,sort,status,create_time,update_time,create_user, update_user) " +
             "values" +
             " (#{name},#{type},#{sort},#{status},#{createTime},#{updateTime},#{createUser}, #{updateUser})")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
     @AutoFill(value = OperationType.INSERT)
     void insertCategory(Category category);
 
@@ -37,6 +42,27 @@ public interface CategoryMapper {
     @Delete("delete from category where id = #{id}")
     void deleteById(Long id);
 
+    /**
+     * 分类未关联菜品和套餐时删除，关联检查与删除在同一条语句中完成
+     * @param id
+     * @return 删除的行数，0表示存在关联或分类不存在
+     */
+    @Delete("delete from category where id = #{id}" +
+            " and not exists (select 1 from dish where category_id = #{id})" +
+            " and not exists (select 1 from setmeal where category_id = #{id})")
+    int deleteIfUnreferenced(Long id);
+
+    /**
+     * 查询分类被引用的情况，EXISTS命中即返回，不统计数量
+     * @param id
+     * @return dish：关联了菜品；setmeal：关联了套餐；null：无关联
+     */
+    @Select("select case" +
+            " when exists (select 1 from dish where category_id = #{id}) then 'dish'" +
+            " when exists (select 1 from setmeal where category_id = #{id}) then 'setmeal'" +
+            " end")
+    String getReference(Long id);
+
     /**
      * 根据id修改分类
      * @param category
@@ -51,6 +77,13 @@ public interface CategoryMapper {
      */
     List<Category> queryByType(Integer type);
 
+    /**
+     * 根据id查询启用的分类
+     * @param ids
+     * @return
+     */
+    List<Category> listEnabledByIds(@Param("ids") Collection<Long> ids);
+
 
 
 
@@ -12,19 +12,21 @@ import com.sky.vo.DishVO;
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface DishMapper {
     /**
-     * 根据分类id查询套餐数量
-     * @param categoryId
+     * 根据状态统计菜品数量
+     * @param status
      * @return
      */
-    @Select("select count(*) from dish where category_id = #{categoryId}")
-    Integer countByCategoryId(Long categoryId);
+    @Select("select count(id) from dish where status = #{status}")
+    Integer countByStatus(Integer status);
 
 
 
@@ -86,6 +88,14 @@ public interface DishMapper {
     @Select("select d.* from setmeal_dish sd left join dish d on sd.dish_id = d.id where sd.setmeal_id = #{setmealId}")
     List<Dish> getBySetmealId(Long setmealId);
 
+    /**
+     * 一次关联查询指定状态的菜品及其口味
+     * @param ids 菜品id，为null时查询全部
+     * @param status 菜品状态
+     * @return java.util.List<com.sky.vo.DishVO>
+     **/
+    List<DishVO> listWithFlavorByIds(@Param("ids") Collection<Long> ids, @Param("status") Integer status);
+
     /**
      * 根据分类id查询菜品
      * @param categoryId
@@ -0,0 +1,36 @@
+package com.sky.mapper;
+
+import com.sky.dto.GoodsSalesDTO;
+import com.sky.entity.OrderDetail;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface OrderDetailMapper {
+
+    /**
+     * 根据订单id查询订单明细
+     * @param orderId
+     * @return java.util.List<com.sky.entity.OrderDetail>
+     **/
+    @Select("select * from order_detail where order_id = #{orderId}")
+    List<OrderDetail> getByOrderId(Long orderId);
+
+    /**
+     * 统计时间范围内已完成订单的商品销量，用于重建销量排行
+     * @param begin 开始时间（含）
+     * @param end 结束时间（不含）
+     * @param status 订单状态
+     * @return java.util.List<com.sky.dto.GoodsSalesDTO>
+     **/
+    @Select("select od.name, sum(od.number) number from order_detail od join orders o on od.order_id = o.id " +
+            "where o.status = #{status} and o.order_time >= #{begin} and o.order_time < #{end} " +
+            "group by od.name")
+    List<GoodsSalesDTO> sumSalesByOrderTime(@Param("begin") LocalDateTime begin,
+                                           @Param("end") LocalDateTime end,
+                                           @Param("status") Integer status);
+}
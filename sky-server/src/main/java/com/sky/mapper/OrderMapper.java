@@ -0,0 +1,104 @@
+package com.sky.mapper;
+
+import com.sky.dto.OrderStatusCountDTO;
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.entity.Orders;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface OrderMapper {
+
+    /**
+     * 根据id查询订单
+     * @param id
+     * @return com.sky.entity.Orders
+     **/
+    @Select("select * from orders where id = #{id}")
+    Orders getById(Long id);
+
+    /**
+     * 订单条件搜索（keyset分页），按 (order_time, id) 倒序
+     * 游标为空时查询第一页，否则从游标位置之后开始读取，避免 LIMIT offset 的线性扫描
+     * @param query 查询条件
+     * @param cursorTime 上一页最后一条记录的下单时间
+     * @param cursorId 上一页最后一条记录的id
+     * @param limit 读取条数
+     * @return java.util.List<com.sky.entity.Orders>
+     **/
+    List<Orders> pageQueryByKeyset(@Param("query") OrdersPageQueryDTO query,
+                                   @Param("cursorTime") LocalDateTime cursorTime,
+                                   @Param("cursorId") Long cursorId,
+                                   @Param("limit") int limit);
+
+    /**
+     * 按条件统计订单数量，最多扫描cap行，用于返回估算总数
+     * @param query 查询条件
+     * @param cap 统计上限
+     * @return java.lang.Long
+     **/
+    Long countByQueryCapped(@Param("query") OrdersPageQueryDTO query, @Param("cap") int cap);
+
+    /**
+     * 从表统计信息中读取订单表的估算行数（无需扫描表）
+     * @return java.lang.Long
+     **/
+    @Select("select table_rows from information_schema.tables " +
+            "where table_schema = database() and table_name = 'orders'")
+    Long estimateTableRows();
+
+    /**
+     * 完成订单：仅当订单处于派送中时更新为已完成，返回受影响行数
+     * 以状态作为条件，重复请求不会重复累计营业额
+     * @param id 订单id
+     * @param fromStatus 期望的当前状态
+     * @param toStatus 目标状态
+     * @param deliveryTime 送达时间
+     * @return int
+     **/
+    @Update("update orders set status = #{toStatus}, delivery_time = #{deliveryTime} " +
+            "where id = #{id} and status = #{fromStatus}")
+    int updateStatusWithDeliveryTime(@Param("id") Long id,
+                                     @Param("fromStatus") Integer fromStatus,
+                                     @Param("toStatus") Integer toStatus,
+                                     @Param("deliveryTime") LocalDateTime deliveryTime);
+
+    /**
+     * 按下单时间范围流式读取订单，用于导出
+     * fetchSize = Integer.MIN_VALUE 使MySQL驱动逐行返回结果，不在内存中缓存整个结果集
+     * 需在事务内遍历，事务结束后游标关闭
+     * @param begin 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return org.apache.ibatis.cursor.Cursor<com.sky.entity.Orders>
+     **/
+    @Select("select * from orders where order_time >= #{begin} and order_time < #{end} order by order_time, id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<Orders> cursorByOrderTime(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 按状态统计时间范围内的订单数量
+     * @param begin 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return java.util.List<com.sky.dto.OrderStatusCountDTO>
+     **/
+    @Select("select status, count(id) order_count from orders " +
+            "where order_time >= #{begin} and order_time < #{end} group by status")
+    List<OrderStatusCountDTO> countGroupByStatus(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 按下单日期和状态统计时间范围内的订单数量，走 (order_time, status) 覆盖索引
+     * @param begin 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return java.util.List<com.sky.dto.OrderStatusCountDTO>
+     **/
+    @Select("select date(order_time) order_date, status, count(id) order_count from orders " +
+            "where order_time >= #{begin} and order_time < #{end} group by date(order_time), status")
+    List<OrderStatusCountDTO> countGroupByDateAndStatus(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+}
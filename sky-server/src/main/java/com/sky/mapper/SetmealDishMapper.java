@@ -10,15 +10,6 @@ import java.util.List;
 @Mapper
 public interface SetmealDishMapper {
 
-    /**
-     * 根据分类id查询套餐的数量
-     * @param id
-     * @return
-     */
-    @Select("select count(id) from setmeal where category_id = #{categoryId}")
-    Integer countByCategoryId(Long id);
-
-
     /**
      * 根据菜品id查询套餐id集合
      * @param dishIds
@@ -6,11 +6,14 @@ import com.sky.dto.SetmealPageQueryDTO;
 import com.sky.entity.Setmeal;
 import com.sky.enumeration.OperationType;
 import com.sky.vo.DishItemVO;
+import com.sky.vo.SetmealDetailVO;
 import com.sky.vo.SetmealVO;
 import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -79,11 +82,27 @@ public interface SetmealMapper {
      * @param setmealId 套餐id
      * @return 菜品列表
      */
-    @Select("select sd.name, sd.copies, d.image, d.description " +
+    @Select("select sd.name, sd.copies, d.img_url image, d.description " +
             "from setmeal_dish sd left join dish d on sd.dish_id = d.id " +
             "where sd.setmeal_id = #{setmealId}")
     List<DishItemVO> getDishItemBySetmealId(Long setmealId);
 
+    /**
+     * 一次关联查询分类下的套餐及其包含的菜品
+     * @param categoryId 分类id
+     * @param status 套餐状态
+     * @return java.util.List<com.sky.vo.SetmealDetailVO>
+     **/
+    List<SetmealDetailVO> listDetailByCategoryId(@Param("categoryId") Long categoryId, @Param("status") Integer status);
+
+    /**
+     * 一次关联查询指定状态的套餐及其包含的菜品
+     * @param ids 套餐id，为null时查询全部
+     * @param status 套餐状态
+     * @return java.util.List<com.sky.vo.SetmealDetailVO>
+     **/
+    List<SetmealDetailVO> listDetailByIds(@Param("ids") Collection<Long> ids, @Param("status") Integer status);
+
     /**
      * 根据状态统计数量
      * @param paramMap
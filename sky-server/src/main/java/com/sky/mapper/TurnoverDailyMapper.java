@@ -0,0 +1,35 @@
+package com.sky.mapper;
+
+import com.sky.entity.TurnoverDaily;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface TurnoverDailyMapper {
+
+    /**
+     * 将一笔已完成订单累加到对应日期的汇总行，不存在则新建
+     * @param orderDate 下单日期
+     * @param amount 订单金额
+     **/
+    @Insert("insert into turnover_daily (order_date, turnover, order_count, update_time) " +
+            "values (#{orderDate}, #{amount}, 1, now()) " +
+            "on duplicate key update turnover = turnover + values(turnover), " +
+            "order_count = order_count + 1, update_time = values(update_time)")
+    void accumulate(@Param("orderDate") LocalDate orderDate, @Param("amount") BigDecimal amount);
+
+    /**
+     * 按日期范围查询汇总（主键范围扫描），没有订单的日期不返回
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return java.util.List<com.sky.entity.TurnoverDaily>
+     **/
+    @Select("select * from turnover_daily where order_date between #{begin} and #{end} order by order_date")
+    List<TurnoverDaily> listByDateRange(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+}
@@ -1,10 +1,15 @@
 package com.sky.mapper;
 
 import com.sky.entity.User;
+import com.sky.entity.UserSignupDaily;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Mapper
 public interface UserMapper {
 
@@ -24,4 +29,30 @@ public interface UserMapper {
     @Insert("insert into user (openid, name, phone, sex, id_number, avatar, create_time) " +
             "values (#{openid}, #{name}, #{phone},#{sex}, #{idNumber}, #{avatar}, #{createTime})")
     void insert(User user);
+
+    /**
+     * 统计时间范围内注册的用户数
+     * @param begin 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return 用户数
+     */
+    @Select("select count(id) from user where create_time >= #{begin} and create_time < #{end}")
+    Integer countByCreateTime(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 按注册日期分组统计时间范围内的新增用户数，用于回填每日新增用户
+     * @param begin 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return java.util.List<com.sky.entity.UserSignupDaily>
+     */
+    @Select("select date(create_time) signup_date, count(id) new_users from user " +
+            "where create_time >= #{begin} and create_time < #{end} group by date(create_time)")
+    List<UserSignupDaily> countGroupBySignupDate(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 最早的注册时间
+     * @return 注册时间，无用户时为null
+     */
+    @Select("select min(create_time) from user")
+    LocalDateTime getEarliestCreateTime();
 }
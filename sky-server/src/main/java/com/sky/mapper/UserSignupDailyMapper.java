@@ -0,0 +1,45 @@
+package com.sky.mapper;
+
+import com.sky.entity.UserSignupDaily;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface UserSignupDailyMapper {
+
+    /**
+     * 注册日期的新增用户数加一，不存在则新建
+     * @param signupDate 注册日期
+     **/
+    @Insert("insert into user_signup_daily (signup_date, new_users, update_time) values (#{signupDate}, 1, now()) " +
+            "on duplicate key update new_users = new_users + 1, update_time = values(update_time)")
+    void increment(LocalDate signupDate);
+
+    /**
+     * 批量写入回填结果，已存在的日期以回填值覆盖
+     * @param rows 每日新增用户
+     **/
+    void upsertBatch(@Param("rows") List<UserSignupDaily> rows);
+
+    /**
+     * 按日期范围查询（主键范围扫描），没有新增用户的日期不返回
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return java.util.List<com.sky.entity.UserSignupDaily>
+     **/
+    @Select("select * from user_signup_daily where signup_date between #{begin} and #{end} order by signup_date")
+    List<UserSignupDaily> listByDateRange(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    /**
+     * 统计某日期之前的用户总数
+     * @param date 日期（不含）
+     * @return java.lang.Long
+     **/
+    @Select("select coalesce(sum(new_users), 0) from user_signup_daily where signup_date < #{date}")
+    Long sumBefore(LocalDate date);
+}
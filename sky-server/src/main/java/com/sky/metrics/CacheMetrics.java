@@ -0,0 +1,116 @@
+package com.sky.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 业务缓存指标，以tag cache区分缓存
+ * <pre>
+ * - sky.cache.requests：命中与未命中次数（result=hit/miss）
+ * - sky.cache.load：未命中时从数据库加载的耗时
+ * - sky.cache.payload.items：写入缓存的元素个数（列表长度，不是字节数）
+ * - sky.cache.evictions：删除的缓存key数量
+ * - sky.cache.conversion：读取到的缓存值需要转换的次数（result=converted/failed/type_mismatch）
+ * </pre>
+ * Spring Cache管理的缓存（setmealCache等）的命中率由Spring Boot的cache.gets等指标提供（CacheConfiguration开启统计），这里只补充加载耗时和大小
+ */
+@Component
+public class CacheMetrics {
+
+    public static final String DISH_CACHE = "dishCache";
+
+    private final Map<String, CacheMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public void hit(String cache) {
+        metersOf(cache).hit.increment();
+    }
+
+    public void miss(String cache) {
+        metersOf(cache).miss.increment();
+    }
+
+    public void evicted(String cache, long count) {
+        metersOf(cache).evictions.increment(count);
+    }
+
+    public void payloadItems(String cache, int items) {
+        metersOf(cache).payloadItems.record(items);
+    }
+
+    /**
+     * 缓存元素为Map，转换为目标类型成功
+     */
+    public void converted(String cache) {
+        metersOf(cache).converted.increment();
+    }
+
+    /**
+     * 缓存元素为Map，转换为目标类型失败
+     */
+    public void conversionFailed(String cache) {
+        metersOf(cache).conversionFailed.increment();
+    }
+
+    /**
+     * 缓存元素类型无法识别
+     */
+    public void typeMismatch(String cache) {
+        metersOf(cache).typeMismatch.increment();
+    }
+
+    /**
+     * 记录未命中时的加载耗时
+     * @param cache 缓存名称
+     * @param loader 加载逻辑
+     * @return 加载结果
+     */
+    public <T> T recordLoad(String cache, Supplier<T> loader) {
+        return metersOf(cache).load.record(loader);
+    }
+
+    private CacheMeters metersOf(String cache) {
+        CacheMeters cacheMeters = meters.get(cache);
+        if (cacheMeters == null) {
+            cacheMeters = meters.computeIfAbsent(cache, name -> new CacheMeters(name, meterRegistry));
+        }
+        return cacheMeters;
+    }
+
+    /**
+     * 单个缓存的全部指标
+     */
+    private static class CacheMeters {
+        private final Counter hit;
+        private final Counter miss;
+        private final Counter evictions;
+        private final Counter converted;
+        private final Counter conversionFailed;
+        private final Counter typeMismatch;
+        private final Timer load;
+        private final DistributionSummary payloadItems;
+
+        CacheMeters(String cache, MeterRegistry registry) {
+            hit = Counter.builder("sky.cache.requests").tag("cache", cache).tag("result", "hit").register(registry);
+            miss = Counter.builder("sky.cache.requests").tag("cache", cache).tag("result", "miss").register(registry);
+            evictions = Counter.builder("sky.cache.evictions").tag("cache", cache).register(registry);
+            converted = Counter.builder("sky.cache.conversion").tag("cache", cache).tag("result", "converted").register(registry);
+            conversionFailed = Counter.builder("sky.cache.conversion").tag("cache", cache).tag("result", "failed").register(registry);
+            typeMismatch = Counter.builder("sky.cache.conversion").tag("cache", cache).tag("result", "type_mismatch").register(registry);
+            load = Timer.builder("sky.cache.load").tag("cache", cache)
+                    .publishPercentiles(0.5, 0.99).register(registry);
+            payloadItems = DistributionSummary.builder("sky.cache.payload.items").tag("cache", cache)
+                    .baseUnit("items").publishPercentiles(0.5, 0.99).register(registry);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sky.metrics;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.sky.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Druid连接池指标
+ * <pre>
+ * - druid.pool.active / idle / max：借出连接数、池中空闲连接数、最大连接数
+ * - druid.pool.waiting：等待获取连接的线程数
+ * - druid.pool.borrow.wait：池中无空闲连接时获取连接的等待次数与总耗时
+ * - druid.pool.connect.errors / created：建立物理连接失败次数、累计创建的物理连接数
+ * </pre>
+ * 以tag pool区分连接池：Spring容器中的Druid数据源使用Bean名称，读写分离的从库使用从库名称
+ */
+@Component
+public class DruidPoolMetrics implements MeterBinder {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Map.Entry<String, DruidDataSource> entry : applicationContext.getBeansOfType(DruidDataSource.class).entrySet()) {
+            bindPool(registry, entry.getKey(), entry.getValue());
+        }
+        for (ReadWriteRoutingDataSource routing : applicationContext.getBeansOfType(ReadWriteRoutingDataSource.class).values()) {
+            for (Map.Entry<String, DataSource> entry : routing.getReplicas().entrySet()) {
+                if (entry.getValue() instanceof DruidDataSource) {
+                    bindPool(registry, entry.getKey(), (DruidDataSource) entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void bindPool(MeterRegistry registry, String pool, DruidDataSource dataSource) {
+        Tags tags = Tags.of("pool", pool);
+
+        Gauge.builder("druid.pool.active", dataSource, DruidDataSource::getActiveCount)
+                .tags(tags).description("借出中的连接数").register(registry);
+        Gauge.builder("druid.pool.idle", dataSource, DruidDataSource::getPoolingCount)
+                .tags(tags).description("池中空闲连接数").register(registry);
+        Gauge.builder("druid.pool.max", dataSource, DruidDataSource::getMaxActive)
+                .tags(tags).description("最大连接数").register(registry);
+        Gauge.builder("druid.pool.waiting", dataSource, DruidDataSource::getWaitThreadCount)
+                .tags(tags).description("等待获取连接的线程数").register(registry);
+
+        FunctionTimer.builder("druid.pool.borrow.wait", dataSource,
+                        DruidDataSource::getNotEmptyWaitCount, DruidDataSource::getNotEmptyWaitNanos, TimeUnit.NANOSECONDS)
+                .tags(tags).description("无空闲连接时获取连接的等待").register(registry);
+
+        FunctionCounter.builder("druid.pool.connect.errors", dataSource, DruidDataSource::getConnectErrorCount)
+                .tags(tags).description("建立物理连接失败次数").register(registry);
+        FunctionCounter.builder("druid.pool.created", dataSource, DruidDataSource::getCreateCount)
+                .tags(tags).description("累计创建的物理连接数").register(registry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.sky.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口耗时指标
+ * <pre>
+ * - 指标sky.endpoint，tag：uri（URI模板，如/user/dish/list）、client（user/admin/other）、outcome
+ * - 发布百分位直方图，并按SLO_BUCKETS输出SLO桶，可直接对单个接口的p99或超时比例告警
+ * - 每个URI模板缓存一组按outcome下标的Timer，记录时不拼接字符串
+ * </pre>
+ */
+@Component
+public class EndpointMetrics {
+
+    public enum Outcome {
+        // 正常返回
+        SUCCESS,
+        // 业务异常（BaseException）
+        BUSINESS_ERROR,
+        // 其他异常
+        ERROR
+    }
+
+    private static final String METRIC_NAME = "sky.endpoint";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final Duration[] SLO_BUCKETS = {
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(200),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2)
+    };
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 记录一次接口耗时
+     * @param uriTemplate URI模板，为null时记为UNKNOWN
+     * @param outcome 结果
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(String uriTemplate, Outcome outcome, long nanos) {
+        String uri = uriTemplate == null ? UNKNOWN_URI : uriTemplate;
+        Timer[] uriTimers = timers.get(uri);
+        if (uriTimers == null) {
+            uriTimers = timers.computeIfAbsent(uri, this::createTimers);
+        }
+        uriTimers[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] createTimers(String uri) {
+        String client = uri.startsWith("/user/") ? "user" : uri.startsWith("/admin/") ? "admin" : "other";
+        Timer[] uriTimers = new Timer[OUTCOMES.length];
+        for (Outcome outcome : OUTCOMES) {
+            uriTimers[outcome.ordinal()] = Timer.builder(METRIC_NAME)
+                    .tag("uri", uri)
+                    .tag("client", client)
+                    .tag("outcome", outcome.name())
+                    .description("接口耗时")
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(SLO_BUCKETS)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+        return uriTimers;
+    }
+}
@@ -0,0 +1,145 @@
+package com.sky.metrics;
+
+import com.sky.config.BoundedThreadPerTaskExecutor;
+import com.sky.properties.ExecutorProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程池指标与过载处理
+ * <pre>
+ * - sky.executor.queued / queue.remaining：队列中等待的任务数、队列剩余容量
+ * - sky.executor.active / pool.size / pool.max：执行中的线程数、当前线程数、最大线程数
+ * - sky.executor.completed：累计完成的任务数
+ * - sky.executor.rejected：线程和队列都满被拒绝（抛弃）的任务数
+ * </pre>
+ * 以tag name区分线程池，线程池在创建时注册；
+ * 虚拟线程模式下的有界执行器使用同样的指标，queued为等待执行名额的任务数，pool.size与active相同
+ */
+@Component
+@Slf4j
+public class ExecutorMetrics implements MeterBinder {
+
+    private final Map<String, ThreadPoolExecutor> executors = new LinkedHashMap<>();
+
+    private final Map<String, LongAdder> rejections = new LinkedHashMap<>();
+
+    private final Map<String, BoundedThreadPerTaskExecutor> boundedExecutors = new LinkedHashMap<>();
+
+    private MeterRegistry registry;
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        executors.forEach(this::bindExecutor);
+        boundedExecutors.forEach(this::bindBoundedExecutor);
+    }
+
+    /**
+     * 注册线程池，指标注册表已就绪时立即绑定指标
+     * @param name 线程池名称
+     * @param executor 线程池
+     */
+    public synchronized void register(String name, ThreadPoolExecutor executor) {
+        executors.put(name, executor);
+        if (registry != null) {
+            bindExecutor(name, executor);
+        }
+    }
+
+    /**
+     * 注册虚拟线程模式下的有界执行器，指标注册表已就绪时立即绑定指标
+     * @param name 执行器名称
+     * @param executor 有界执行器
+     */
+    public synchronized void register(String name, BoundedThreadPerTaskExecutor executor) {
+        boundedExecutors.put(name, executor);
+        if (registry != null) {
+            bindBoundedExecutor(name, executor);
+        }
+    }
+
+    /**
+     * 创建计数并按策略处理被拒绝任务的处理器
+     * @param name 线程池名称
+     * @param policy 过载处理策略
+     * @return java.util.concurrent.RejectedExecutionHandler
+     */
+    public synchronized RejectedExecutionHandler sheddingHandler(String name, ExecutorProperties.SheddingPolicy policy) {
+        LongAdder rejected = rejections.computeIfAbsent(name, key -> new LongAdder());
+        return (task, executor) -> {
+            rejected.increment();
+            long count = rejected.sum();
+            // 过载时每个任务都会被拒绝，日志只记录首次和之后每1000次
+            if (count == 1 || count % 1000 == 0) {
+                log.warn("线程池{}已满，按{}策略处理，累计拒绝{}个任务，活跃线程：{}，队列：{}", name, policy, count,
+                        executor.getActiveCount(), executor.getQueue().size());
+            }
+            switch (policy) {
+                case DISCARD:
+                    return;
+                case DISCARD_OLDEST:
+                    if (!executor.isShutdown()) {
+                        executor.getQueue().poll();
+                        executor.execute(task);
+                    }
+                    return;
+                case ABORT:
+                default:
+                    throw new RejectedExecutionException("线程池" + name + "已满，任务被拒绝");
+            }
+        };
+    }
+
+    private void bindExecutor(String name, ThreadPoolExecutor executor) {
+        Tags tags = Tags.of("name", name);
+
+        Gauge.builder("sky.executor.queued", executor, e -> e.getQueue().size())
+                .tags(tags).description("队列中等待的任务数").register(registry);
+        Gauge.builder("sky.executor.queue.remaining", executor, e -> e.getQueue().remainingCapacity())
+                .tags(tags).description("队列剩余容量").register(registry);
+        Gauge.builder("sky.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tags(tags).description("执行中的线程数").register(registry);
+        Gauge.builder("sky.executor.pool.size", executor, ThreadPoolExecutor::getPoolSize)
+                .tags(tags).description("当前线程数").register(registry);
+        Gauge.builder("sky.executor.pool.max", executor, ThreadPoolExecutor::getMaximumPoolSize)
+                .tags(tags).description("最大线程数").register(registry);
+        FunctionCounter.builder("sky.executor.completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .tags(tags).description("累计完成的任务数").register(registry);
+
+        LongAdder rejected = rejections.computeIfAbsent(name, key -> new LongAdder());
+        FunctionCounter.builder("sky.executor.rejected", rejected, LongAdder::sum)
+                .tags(tags).description("过载被拒绝的任务数").register(registry);
+    }
+
+    private void bindBoundedExecutor(String name, BoundedThreadPerTaskExecutor executor) {
+        Tags tags = Tags.of("name", name);
+
+        Gauge.builder("sky.executor.queued", executor, BoundedThreadPerTaskExecutor::getWaitingCount)
+                .tags(tags).description("队列中等待的任务数").register(registry);
+        Gauge.builder("sky.executor.queue.remaining", executor, BoundedThreadPerTaskExecutor::getRemainingCapacity)
+                .tags(tags).description("队列剩余容量").register(registry);
+        Gauge.builder("sky.executor.active", executor, BoundedThreadPerTaskExecutor::getActiveCount)
+                .tags(tags).description("执行中的线程数").register(registry);
+        Gauge.builder("sky.executor.pool.size", executor, BoundedThreadPerTaskExecutor::getActiveCount)
+                .tags(tags).description("当前线程数").register(registry);
+        Gauge.builder("sky.executor.pool.max", executor, BoundedThreadPerTaskExecutor::getMaxConcurrency)
+                .tags(tags).description("最大线程数").register(registry);
+        FunctionCounter.builder("sky.executor.completed", executor, BoundedThreadPerTaskExecutor::getCompletedTaskCount)
+                .tags(tags).description("累计完成的任务数").register(registry);
+        FunctionCounter.builder("sky.executor.rejected", executor, BoundedThreadPerTaskExecutor::getRejectedCount)
+                .tags(tags).description("过载被拒绝的任务数").register(registry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.sky.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis语句耗时指标
+ * <pre>
+ * - 指标mybatis.statement，按Mapper语句id（如DishMapper.getByCategoryId）、SQL类型和异常类型打tag
+ * - 发布百分位直方图，Prometheus端可用histogram_quantile计算各语句的p99
+ * - Timer按tag组合缓存，避免每次执行重新构建
+ * - 游标查询只统计打开游标的耗时
+ * </pre>
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class MybatisStatementMetricsInterceptor implements Interceptor {
+
+    private static final String METRIC_NAME = "mybatis.statement";
+    private static final String NO_EXCEPTION = "None";
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timerOf(mappedStatement, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerOf(MappedStatement mappedStatement, String exception) {
+        return timers.computeIfAbsent(mappedStatement.getId() + '|' + exception, key -> Timer.builder(METRIC_NAME)
+                .tag("statement", shortId(mappedStatement.getId()))
+                .tag("command", mappedStatement.getSqlCommandType().name())
+                .tag("exception", exception)
+                .description("Mapper语句执行耗时")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry));
+    }
+
+    /**
+     * 去掉包名：com.sky.mapper.DishMapper.getByCategoryId -> DishMapper.getByCategoryId
+     */
+    private String shortId(String id) {
+        int methodDot = id.lastIndexOf('.');
+        int classDot = methodDot > 0 ? id.lastIndexOf('.', methodDot - 1) : -1;
+        return classDot >= 0 ? id.substring(classDot + 1) : id;
+    }
+}
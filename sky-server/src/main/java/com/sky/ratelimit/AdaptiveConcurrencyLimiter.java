@@ -0,0 +1,130 @@
+package com.sky.ratelimit;
+
+import com.sky.properties.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制（梯度算法）
+ * <pre>
+ * - 同时执行的请求数达到当前上限时直接拒绝，不排队、不占用Tomcat线程等待数据库
+ * - 请求耗时按窗口汇总，一个窗口的样本数为当前上限（至少10个），约等于所有并发名额各完成一次
+ * - 每个窗口结束时，以窗口平均耗时为近期延迟，并计入长期延迟（按窗口数的指数平均），调整一次上限
+ * - 梯度 = 容忍倍数 * 长期延迟 / 近期延迟，取值[0.5, 1]：延迟上升时按比例降低上限，延迟正常时梯度为1
+ * - 新上限 = 上限 * 梯度 + sqrt(上限)，sqrt部分允许少量排队以探测更高的并发，再按smoothing平滑
+ * - 窗口内最大并发不到上限一半时不调整，避免低负载时上限无限增长
+ * - 近期延迟明显低于长期延迟时（如数据库恢复），长期延迟逐步向下收敛
+ * </pre>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double longAlpha;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    // 以下字段只在onSample的锁内访问
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties.Limiter properties) {
+        this.name = name;
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(this.minLimit, properties.getMaxLimit());
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.longAlpha = 2.0 / (Math.max(1, properties.getLongWindow()) + 1);
+        this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 尝试占用一个并发名额，成功后必须调用release
+     * @return boolean 是否放行
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放并发名额，并以本次耗时调整并发上限
+     * @param rttNanos 本次请求耗时（纳秒）
+     */
+    public void release(long rttNanos) {
+        int current = inflight.getAndDecrement();
+        if (rttNanos > 0) {
+            onSample(rttNanos, current);
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtSample) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtSample);
+        if (windowSamples < Math.max(MIN_WINDOW_SAMPLES, limit)) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowSamples;
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) * longAlpha;
+        // 延迟下降后长期延迟仍偏高时，加快收敛，否则梯度长期为1，之后延迟再上升时反应变慢
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (maxInflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
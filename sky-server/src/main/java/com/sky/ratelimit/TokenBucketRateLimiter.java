@@ -0,0 +1,236 @@
+package com.sky.ratelimit;
+
+import com.sky.constant.RedisKeysConstant;
+import com.sky.properties.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流
+ * <pre>
+ * - 全局令牌桶在Redis中（HASH，tokens、ts），由Lua脚本按Redis时间补充并扣减，多节点共享同一个限额
+ * - 每次从全局令牌桶预取leaseSize个令牌放在本地，本地令牌用完或过期后才访问Redis
+ * - 全局令牌桶已空时，本地记录下一个令牌的补充时间，之前的请求直接拒绝，不再访问Redis
+ * - 本地令牌桶按key的hash分段加锁，每段LRU淘汰；访问Redis时不持有锁
+ * - Redis不可用时回退为本地令牌桶，限额按单节点计算，之后一段时间内不再尝试Redis
+ * </pre>
+ */
+@Component
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    /**
+     * KEYS[1] 令牌桶key；ARGV[1] 容量，ARGV[2] 每毫秒补充的令牌数，ARGV[3] 申请的令牌数
+     * 返回实际取得的令牌数；脚本内先读TIME再写入，需Redis 5及以上（按效果复制）
+     */
+    private static final RedisScript<Long> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) " +
+            "local rate = tonumber(ARGV[2]) " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+            "local tokens = tonumber(bucket[1]) " +
+            "local ts = tonumber(bucket[2]) " +
+            "if tokens == nil or ts == nil then tokens = capacity ts = now end " +
+            "if now > ts then tokens = math.min(capacity, tokens + (now - ts) * rate) ts = now end " +
+            "local granted = math.min(tonumber(ARGV[3]), math.floor(tokens)) " +
+            "tokens = tokens - granted " +
+            "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts)) " +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate) + 1000) " +
+            "return granted", Long.class);
+
+    private static final String SEPARATOR = ":";
+
+    // Redis调用失败后暂停访问Redis的时间
+    private static final long REDIS_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Stripe[] stripes;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private volatile long redisRetryAt = System.nanoTime();
+
+    @PostConstruct
+    public void init() {
+        int count = Integer.highestOneBit(Math.max(1, rateLimitProperties.getStripes()));
+        int maxSizePerStripe = Math.max(1, rateLimitProperties.getMaxLocalBuckets() / count);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(maxSizePerStripe);
+        }
+    }
+
+    /**
+     * 尝试取得一个令牌
+     * @param rule 限流规则
+     * @param key 限流对象（用户id或IP）
+     * @return boolean 是否放行
+     */
+    public boolean tryAcquire(RateLimitProperties.Rule rule, String key) {
+        String bucketKey = rule.getName() + SEPARATOR + key;
+        Stripe stripe = stripes[spread(bucketKey.hashCode()) & (stripes.length - 1)];
+        long now = System.nanoTime();
+        boolean useRedis = now - redisRetryAt >= 0;
+
+        synchronized (stripe) {
+            LocalBucket bucket = stripe.get(bucketKey, rule, now);
+            if (!useRedis) {
+                return record(rule, bucket.takeLocal(rule, now));
+            }
+            if (bucket.leased > 0 && now - bucket.leaseExpiresAt < 0) {
+                bucket.leased--;
+                return record(rule, true);
+            }
+            if (now - bucket.deniedUntil < 0) {
+                return record(rule, false);
+            }
+        }
+
+        int leaseSize = leaseSize(rule);
+        Long granted;
+        try {
+            granted = stringRedisTemplate.execute(TAKE_SCRIPT,
+                    Collections.singletonList(RedisKeysConstant.RATE_LIMIT_KEY + bucketKey),
+                    String.valueOf(rule.getCapacity()), String.valueOf(rule.getRefillPerSecond() / 1000),
+                    String.valueOf(leaseSize));
+        } catch (RuntimeException e) {
+            redisRetryAt = System.nanoTime() + REDIS_RETRY_DELAY_NANOS;
+            log.warn("访问Redis令牌桶失败，{}秒内使用本地令牌桶：{}",
+                    TimeUnit.NANOSECONDS.toSeconds(REDIS_RETRY_DELAY_NANOS), e.getMessage());
+            synchronized (stripe) {
+                return record(rule, stripe.get(bucketKey, rule, now).takeLocal(rule, System.nanoTime()));
+            }
+        }
+
+        now = System.nanoTime();
+        synchronized (stripe) {
+            LocalBucket bucket = stripe.get(bucketKey, rule, now);
+            if (granted == null || granted <= 0) {
+                bucket.deniedUntil = now + Math.min(nanosPerToken(rule), rateLimitProperties.getLeaseTtl().toNanos());
+                return record(rule, false);
+            }
+            if (bucket.leased <= 0 || now - bucket.leaseExpiresAt >= 0) {
+                bucket.leased = 0;
+            }
+            bucket.leased += granted.intValue() - 1;
+            bucket.leaseExpiresAt = now + rateLimitProperties.getLeaseTtl().toNanos();
+            return record(rule, true);
+        }
+    }
+
+    /**
+     * 补充一个令牌需要的秒数，至少1秒
+     * @param rule 限流规则
+     * @return long
+     */
+    public long retryAfterSeconds(RateLimitProperties.Rule rule) {
+        return Math.max(1, (long) Math.ceil(1 / rule.getRefillPerSecond()));
+    }
+
+    /**
+     * 每次预取的令牌数：不超过容量，也不超过有效期内能补充的令牌数，至少1个
+     * 补充慢的规则（如每5秒1个）预取多个令牌会在过期时作废，白白消耗全局配额
+     * @param rule 限流规则
+     * @return int
+     */
+    int leaseSize(RateLimitProperties.Rule rule) {
+        double refillPerLease = rule.getRefillPerSecond() * rateLimitProperties.getLeaseTtl().toMillis() / 1000;
+        long leaseSize = Math.min(Math.min(rateLimitProperties.getLeaseSize(), rule.getCapacity()),
+                (long) Math.ceil(refillPerLease));
+        return (int) Math.max(1, leaseSize);
+    }
+
+    private long nanosPerToken(RateLimitProperties.Rule rule) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond());
+    }
+
+    private boolean record(RateLimitProperties.Rule rule, boolean allowed) {
+        String result = allowed ? "allowed" : "rejected";
+        counters.computeIfAbsent(rule.getName() + SEPARATOR + result, name -> Counter.builder("sky.ratelimit.requests")
+                .description("限流规则匹配的请求数")
+                .tag("rule", rule.getName())
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+        return allowed;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 一段本地令牌桶，按访问顺序淘汰
+     */
+    private static class Stripe {
+
+        private final Map<String, LocalBucket> buckets;
+
+        Stripe(int maxSize) {
+            this.buckets = new LinkedHashMap<String, LocalBucket>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LocalBucket> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        LocalBucket get(String key, RateLimitProperties.Rule rule, long now) {
+            return buckets.computeIfAbsent(key, k -> new LocalBucket(rule.getCapacity(), now));
+        }
+    }
+
+    /**
+     * 本地令牌桶，只在所属Stripe的锁内访问
+     */
+    static class LocalBucket {
+        // 从Redis预取的剩余令牌数及其过期时间
+        int leased;
+        long leaseExpiresAt;
+        // 全局令牌桶已空，该时间之前直接拒绝
+        long deniedUntil;
+        // Redis不可用时使用的本地令牌
+        double tokens;
+        long refilledAt;
+
+        LocalBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+            this.deniedUntil = now;
+        }
+
+        boolean takeLocal(RateLimitProperties.Rule rule, long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(rule.getCapacity(),
+                        tokens + (now - refilledAt) * rule.getRefillPerSecond() / TimeUnit.SECONDS.toNanos(1));
+                refilledAt = now;
+            }
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
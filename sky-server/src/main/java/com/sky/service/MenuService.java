@@ -0,0 +1,32 @@
+package com.sky.service;
+
+import com.sky.vo.MenuDeltaVO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+public interface MenuService {
+
+    /**
+     * 完整菜单快照，按版本号构建一次并缓存gzip压缩后的JSON
+     * @return com.sky.service.MenuService.CompressedSnapshot
+     **/
+    CompressedSnapshot getSnapshot();
+
+    /**
+     * 菜单增量
+     * @param since 客户端已有的版本号
+     * @return com.sky.vo.MenuDeltaVO
+     **/
+    MenuDeltaVO getDelta(Long since);
+
+    /**
+     * gzip压缩后的统一返回结果JSON
+     */
+    @Getter
+    @AllArgsConstructor
+    class CompressedSnapshot {
+        //菜单版本号，Redis不可用时为null
+        private final Long version;
+        private final byte[] gzipJson;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sky.service;
+
+import com.sky.enumeration.MenuItemType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface MenuVersionService {
+
+    /**
+     * 当前菜单版本号
+     * @return java.lang.Long 版本号，Redis不可用时返回null
+     **/
+    Long currentVersion();
+
+    /**
+     * 菜单数据变更后递增版本号并记录变更的数据，存在事务时在提交后执行
+     * @param type 变更的数据类型
+     * @param ids 变更的数据id
+     **/
+    void bumpAfterCommit(MenuItemType type, Collection<Long> ids);
+
+    /**
+     * 查询版本号在(since, until]之间变更过的数据
+     * @param since 客户端已有的版本号
+     * @param until 本次同步到的版本号
+     * @return java.util.Map 数据类型 -> 变更的数据id，since之后的变更记录已被清理时返回null
+     **/
+    Map<MenuItemType, Set<Long>> getChanges(long since, long until);
+}
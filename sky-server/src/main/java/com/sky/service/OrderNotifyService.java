@@ -0,0 +1,12 @@
+package com.sky.service;
+
+import com.sky.entity.Orders;
+
+public interface OrderNotifyService {
+
+    /**
+     * 客户催单，推送给所有节点上已连接的管理端
+     * @param orders 被催的订单
+     */
+    void notifyReminder(Orders orders);
+}
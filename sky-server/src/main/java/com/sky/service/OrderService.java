@@ -0,0 +1,37 @@
+package com.sky.service;
+
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.result.CursorPageResult;
+import com.sky.vo.OrderStatisticsVO;
+
+import java.time.LocalDate;
+
+public interface OrderService {
+
+    /**
+     * 订单条件搜索（游标分页）
+     * @param ordersPageQueryDTO 查询条件，cursor为空时返回第一页
+     * @return com.sky.result.CursorPageResult
+     **/
+    CursorPageResult conditionSearch(OrdersPageQueryDTO ordersPageQueryDTO);
+
+    /**
+     * 客户催单
+     * @param id 订单id
+     **/
+    void reminder(Long id);
+
+    /**
+     * 完成订单
+     * @param id 订单id
+     **/
+    void complete(Long id);
+
+    /**
+     * 各状态订单数量统计
+     * @param begin 下单开始日期（含）
+     * @param end 下单结束日期（含）
+     * @return com.sky.vo.OrderStatisticsVO
+     **/
+    OrderStatisticsVO statistics(LocalDate begin, LocalDate end);
+}
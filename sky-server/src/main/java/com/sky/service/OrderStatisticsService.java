@@ -0,0 +1,21 @@
+package com.sky.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface OrderStatisticsService {
+
+    /**
+     * 按日期和状态统计订单数量
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return 日期 -> (订单状态 -> 订单数量)，包含范围内的每一天
+     **/
+    Map<LocalDate, Map<Integer, Integer>> countByDateAndStatus(LocalDate begin, LocalDate end);
+
+    /**
+     * 清除某一天的统计缓存，历史订单状态变更后调用
+     * @param date 下单日期
+     **/
+    void evict(LocalDate date);
+}
@@ -0,0 +1,50 @@
+package com.sky.service;
+
+import com.sky.vo.OrderReportVO;
+import com.sky.vo.TurnoverReportVO;
+import com.sky.vo.UserReportVO;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+
+public interface ReportService {
+
+    /**
+     * 营业额统计
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return com.sky.vo.TurnoverReportVO
+     **/
+    TurnoverReportVO getTurnoverStatistics(LocalDate begin, LocalDate end);
+
+    /**
+     * 导出订单明细Excel，直接写入响应输出流
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @param response HTTP响应
+     **/
+    void exportOrders(LocalDate begin, LocalDate end, HttpServletResponse response);
+
+    /**
+     * 用户统计
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return com.sky.vo.UserReportVO
+     **/
+    UserReportVO getUserStatistics(LocalDate begin, LocalDate end);
+
+    /**
+     * 订单统计
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return com.sky.vo.OrderReportVO
+     **/
+    OrderReportVO getOrderStatistics(LocalDate begin, LocalDate end);
+
+    /**
+     * 从user表按日期分段回填每日新增用户，只回填今天之前的日期
+     * @param begin 开始日期（含），为null时从最早注册日期开始
+     * @param end 结束日期（含），为null或不早于今天时到昨天
+     **/
+    void backfillUserSignups(LocalDate begin, LocalDate end);
+}
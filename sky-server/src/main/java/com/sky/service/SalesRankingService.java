@@ -0,0 +1,37 @@
+package com.sky.service;
+
+import com.sky.entity.OrderDetail;
+import com.sky.vo.SalesTop10ReportVO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesRankingService {
+
+    /**
+     * 将已完成订单的商品销量累加到当天的销量排行
+     * @param orderDate 下单日期
+     * @param orderDetails 订单明细
+     **/
+    void recordSales(LocalDate orderDate, List<OrderDetail> orderDetails);
+
+    /**
+     * 查询日期范围内销量前10的商品
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     * @return com.sky.vo.SalesTop10ReportVO
+     **/
+    SalesTop10ReportVO getSalesTop10(LocalDate begin, LocalDate end);
+
+    /**
+     * 从MySQL重建日期范围内每天的销量排行
+     * @param begin 开始日期（含）
+     * @param end 结束日期（含）
+     **/
+    void rebuild(LocalDate begin, LocalDate end);
+
+    /**
+     * 尚未回填过时，从MySQL重建最近一年（含今天）的销量排行；多节点下只有一个节点执行
+     **/
+    void backfillIfAbsent();
+}
@@ -6,6 +6,7 @@ import com.sky.dto.SetmealPageQueryDTO;
 import com.sky.entity.Setmeal;
 import com.sky.result.PageResult;
 import com.sky.vo.DishItemVO;
+import com.sky.vo.SetmealDetailVO;
 import com.sky.vo.SetmealVO;
 
 import java.util.List;
@@ -20,6 +21,13 @@ public interface SetmealService {
      */
     List<Setmeal> listSetmealByCategoryId(Long categoryId);
 
+    /**
+     * 根据分类id查询起售套餐及其包含的菜品
+     * @param categoryId 分类id
+     * @return 套餐及菜品列表
+     */
+    List<SetmealDetailVO> listSetmealDetailByCategoryId(Long categoryId);
+
     /**
      * 根据ID查询套餐
      * @param id
@@ -0,0 +1,63 @@
+package com.sky.service;
+
+import com.sky.entity.Orders;
+import com.sky.vo.BusinessDataVO;
+import com.sky.vo.DishOverViewVO;
+import com.sky.vo.OrderOverViewVO;
+import com.sky.vo.SetmealOverViewVO;
+
+import java.time.LocalDateTime;
+
+public interface WorkspaceService {
+
+    /**
+     * 今日运营数据
+     * @return com.sky.vo.BusinessDataVO
+     **/
+    BusinessDataVO getBusinessData();
+
+    /**
+     * 今日订单概览
+     * @return com.sky.vo.OrderOverViewVO
+     **/
+    OrderOverViewVO getOrderOverView();
+
+    /**
+     * 菜品总览
+     * @return com.sky.vo.DishOverViewVO
+     **/
+    DishOverViewVO getDishOverView();
+
+    /**
+     * 套餐总览
+     * @return com.sky.vo.SetmealOverViewVO
+     **/
+    SetmealOverViewVO getSetmealOverView();
+
+    /**
+     * 订单完成事件：派送中 -> 已完成，累计营业额
+     * @param orders 完成前的订单
+     **/
+    void onOrderCompleted(Orders orders);
+
+    /**
+     * 新用户注册事件
+     * @param createTime 注册时间
+     **/
+    void onUserRegistered(LocalDateTime createTime);
+
+    /**
+     * 菜品或套餐新增、删除、起售停售后刷新菜单总览，有事务时在提交后执行
+     **/
+    void onMenuChanged();
+
+    /**
+     * 将本节点累计的增量写入Redis，并拉取多节点汇总后的快照
+     **/
+    void flush();
+
+    /**
+     * 以MySQL为准校正Redis中的今日计数与菜单总览
+     **/
+    void reconcile();
+}
@@ -2,21 +2,30 @@ package com.sky.service.impl;
 
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
+import com.sky.constant.CacheConstant;
+import com.sky.constant.ErrorCodeConstant;
+import com.sky.constant.MessageConstant;
 import com.sky.constant.StatusConstant;
 import com.sky.context.UserContext;
 import com.sky.dto.CategoryDTO;
 import com.sky.dto.CategoryPageQueryDTO;
 import com.sky.entity.Category;
+import com.sky.enumeration.MenuItemType;
+import com.sky.exception.DeletionNotAllowedException;
 import com.sky.mapper.CategoryMapper;
-import com.sky.mapper.DishMapper;
-import com.sky.mapper.SetmealDishMapper;
+import com.sky.metrics.CacheMetrics;
 import com.sky.result.PageResult;
 import com.sky.service.CategoryService;
+import com.sky.service.MenuVersionService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -25,11 +34,31 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryMapper categoryMapper;
 
+    private static final String CATEGORY_REFERENCE_DISH = "dish";
+    private static final String CATEGORY_REFERENCE_SETMEAL = "setmeal";
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
-    private DishMapper dishMapper;
+    private CacheMetrics cacheMetrics;
 
     @Autowired
-    private SetmealDishMapper setmealMapper;
+    private MenuVersionService menuVersionService;
+
+    /**
+     * 分类变更后清空分类缓存并递增菜单版本号
+     * 修改可能变更分类类型，且type为空时缓存的是全部分类，因此整体清空
+     * @param id 变更的分类id
+     */
+    private void evictCategoryCache(Long id) {
+        Cache cache = cacheManager.getCache(CacheConstant.CATEGORY_CACHE);
+        if (cache != null) {
+            cache.clear();
+            cacheMetrics.evicted(CacheConstant.CATEGORY_CACHE, 1);
+        }
+        menuVersionService.bumpAfterCommit(MenuItemType.CATEGORY, Collections.singleton(id));
+    }
 
     /**
      * 新增分类
@@ -48,6 +77,7 @@ public class CategoryServiceImpl implements CategoryService {
 //        category.setUpdateUser(UserContext.getCurrentId());
 
         categoryMapper.insertCategory(category);
+        evictCategoryCache(category.getId());
     }
 
 
@@ -72,20 +102,30 @@ public class CategoryServiceImpl implements CategoryService {
      */
     public void deleteById(Long id){
 
-        // 查询当前分类是否关联了菜品
-        Integer count1 = dishMapper.countByCategoryId(id);
-        if (count1 > 0){
-            throw new RuntimeException("当前分类关联了菜品，不能删除");
-        }
-
-        // 查询当前分类是否关联了套餐
-        Integer count2 = setmealMapper.countByCategoryId(id);
-        if (count2 > 0){
-            throw new RuntimeException("当前分类关联了套餐，不能删除");
+        // 未关联菜品和套餐时才删除，一条语句完成检查与删除
+        if (categoryMapper.deleteIfUnreferenced(id) == 0) {
+            // 未删除时再查明原因
+            String reference = categoryMapper.getReference(id);
+            if (reference == null) {
+                // 删除与查询之间关联可能已被移除，重试一次
+                if (categoryMapper.deleteIfUnreferenced(id) > 0) {
+                    evictCategoryCache(id);
+                    return;
+                }
+                reference = categoryMapper.getReference(id);
+            }
+            if (CATEGORY_REFERENCE_DISH.equals(reference)) {
+                throw new DeletionNotAllowedException(ErrorCodeConstant.CATEGORY_BE_RELATED_BY_DISH,
+                        MessageConstant.CATEGORY_BE_RELATED_BY_DISH);
+            }
+            if (CATEGORY_REFERENCE_SETMEAL.equals(reference)) {
+                throw new DeletionNotAllowedException(ErrorCodeConstant.CATEGORY_BE_RELATED_BY_SETMEAL,
+                        MessageConstant.CATEGORY_BE_RELATED_BY_SETMEAL);
+            }
+            // 两次都无关联且未删除：分类不存在，与原先一样视为删除成功
+            return;
         }
-
-        // 正常删除分类
-        categoryMapper.deleteById(id);
+        evictCategoryCache(id);
 
     }
 
@@ -103,6 +143,7 @@ public class CategoryServiceImpl implements CategoryService {
 //        category.setUpdateUser(UserContext.getCurrentId());
 
         categoryMapper.updateCategoryById(category);
+        evictCategoryCache(category.getId());
     }
 
     /**
@@ -119,6 +160,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .updateUser(UserContext.getCurrentId())
                 .build();
         categoryMapper.updateCategoryById(category);
+        evictCategoryCache(category.getId());
     }
 
     /**
@@ -127,9 +169,11 @@ public class CategoryServiceImpl implements CategoryService {
      * @param type 分类类型
      * @return 分类列表
      */
+    @Cacheable(cacheNames = CacheConstant.CATEGORY_CACHE, key = "#type == null ? 'all' : #type")
     public List<Category> listByType(Integer type){
-        return categoryMapper.queryByType(type);
-
+        List<Category> categories = cacheMetrics.recordLoad(CacheConstant.CATEGORY_CACHE, () -> categoryMapper.queryByType(type));
+        cacheMetrics.payloadItems(CacheConstant.CATEGORY_CACHE, categories.size());
+        return categories;
     }
 
 
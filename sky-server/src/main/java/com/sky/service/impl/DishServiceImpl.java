@@ -6,6 +6,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
+import com.sky.constant.CacheConstant;
 import com.sky.constant.MessageConstant;
 import com.sky.constant.RedisKeysConstant;
 import com.sky.constant.StatusConstant;
@@ -13,18 +14,24 @@ import com.sky.dto.DishDTO;
 import com.sky.dto.DishPageQueryDTO;
 import com.sky.entity.Dish;
 import com.sky.entity.DishFlavor;
+import com.sky.enumeration.MenuItemType;
 import com.sky.exception.DeletionNotAllowedException;
 import com.sky.mapper.DishFlavorMapper;
 import com.sky.mapper.DishMapper;
 import com.sky.mapper.SetmealDishMapper;
+import com.sky.metrics.CacheMetrics;
 import com.sky.result.PageResult;
 import com.sky.result.Result;
 import com.sky.service.DishService;
+import com.sky.service.MenuVersionService;
+import com.sky.service.WorkspaceService;
 import com.sky.vo.DishVO;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -51,6 +58,18 @@ public class DishServiceImpl implements DishService {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private MenuVersionService menuVersionService;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     private static final ObjectMapper CACHE_MAPPER = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -79,7 +98,9 @@ public class DishServiceImpl implements DishService {
                     for (Long cid : new HashSet<>(categoryIds)) {
                         String key = keyOfCategory(cid);
                         try {
-                            redisTemplate.delete(key);
+                            if (Boolean.TRUE.equals(redisTemplate.delete(key))) {
+                                cacheMetrics.evicted(CacheMetrics.DISH_CACHE, 1);
+                            }
                             log.debug("Evict dish cache after commit, key={}", key);
                         } catch (Exception e) {
                             log.warn("Evict dish cache failed, key={}", key, e);
@@ -90,11 +111,30 @@ public class DishServiceImpl implements DishService {
         } else {
             // 无事务时直接删除
             for (Long cid : new HashSet<>(categoryIds)) {
-                redisTemplate.delete(keyOfCategory(cid));
+                if (Boolean.TRUE.equals(redisTemplate.delete(keyOfCategory(cid)))) {
+                    cacheMetrics.evicted(CacheMetrics.DISH_CACHE, 1);
+                }
             }
         }
     }
 
+    /**
+     * 事务提交后清空套餐详情缓存，套餐详情中包含菜品的图片和描述
+     */
+    private void clearSetmealDetailCacheAfterCommit() {
+        Cache cache = cacheManager.getCache(CacheConstant.SETMEAL_DETAIL_CACHE);
+        if (cache == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.clear();
+                }
+            });
+        } else {
+            cache.clear();
+        }
+    }
 
     /**
      * 新增菜品
@@ -121,6 +161,8 @@ public class DishServiceImpl implements DishService {
         }
         //新增菜品后，清理缓存
         evictCategoryKeysAfterCommit(Collections.singleton(dish.getCategoryId()));
+        menuVersionService.bumpAfterCommit(MenuItemType.DISH, Collections.singleton(currentDishId));
+        workspaceService.onMenuChanged();
     }
 
     /**
@@ -182,6 +224,8 @@ public class DishServiceImpl implements DishService {
 
         // 事务提交后删除缓存
         evictCategoryKeysAfterCommit(affectedCategoryIds);
+        menuVersionService.bumpAfterCommit(MenuItemType.DISH, ids);
+        workspaceService.onMenuChanged();
     }
     /**
      * 修改菜品状态
@@ -203,6 +247,10 @@ public class DishServiceImpl implements DishService {
         }
         // 删除redis缓存数据
         evictCategoryKeysAfterCommit(toEvict);
+        // 套餐详情按菜品明细缓存，菜品起售停售后同样失效
+        clearSetmealDetailCacheAfterCommit();
+        menuVersionService.bumpAfterCommit(MenuItemType.DISH, Collections.singleton(id));
+        workspaceService.onMenuChanged();
     }
 
 
@@ -266,6 +314,11 @@ public class DishServiceImpl implements DishService {
             toEvict.add(dish.getCategoryId());
         }
         evictCategoryKeysAfterCommit(toEvict);
+        clearSetmealDetailCacheAfterCommit();
+        menuVersionService.bumpAfterCommit(MenuItemType.DISH, Collections.singleton(currentDishId));
+        if (dish.getStatus() != null) {
+            workspaceService.onMenuChanged();
+        }
     }
 
     /**
@@ -297,6 +350,21 @@ public class DishServiceImpl implements DishService {
      * @return
      */
     public List<DishVO> getDishCacheByKey(String key){
+        List<DishVO> dishVOs = readDishCache(key);
+        if (dishVOs == null || dishVOs.isEmpty()) {
+            cacheMetrics.miss(CacheMetrics.DISH_CACHE);
+        } else {
+            cacheMetrics.hit(CacheMetrics.DISH_CACHE);
+        }
+        return dishVOs;
+    }
+
+    /**
+     * 读取菜品缓存，兼容元素被反序列化为Map的旧缓存
+     * @param key
+     * @return
+     */
+    private List<DishVO> readDishCache(String key){
         Object val = redisTemplate.opsForValue().get(key);
         if (val == null) {
             return null;
@@ -314,16 +382,20 @@ public class DishServiceImpl implements DishService {
                 try {
                     String json = CACHE_MAPPER.writeValueAsString(raw);
                     List<DishVO> list = CACHE_MAPPER.readValue(json, DISHVO_LIST_TYPE);
+                    cacheMetrics.converted(CacheMetrics.DISH_CACHE);
                     log.info("Redis缓存元素为 Map，已转换为 List<DishVO>，key: {}", key);
                     return list;
                 } catch (Exception e) {
+                    cacheMetrics.conversionFailed(CacheMetrics.DISH_CACHE);
                     log.warn("Redis缓存 Map -> DishVO 转换失败，key: {}, err: {}", key, e.getMessage());
                     return null;
                 }
             }
+            cacheMetrics.typeMismatch(CacheMetrics.DISH_CACHE);
             log.warn("Redis缓存元素类型不匹配，key: {}, 实际元素类型: {}", key, first.getClass().getName());
             return null;
         }
+        cacheMetrics.typeMismatch(CacheMetrics.DISH_CACHE);
         log.warn("Redis缓存类型不匹配，key: {}, 实际类型: {}", key, val.getClass().getName());
         return null;
     }
@@ -341,13 +413,15 @@ public class DishServiceImpl implements DishService {
             return;
         }
         redisTemplate.opsForValue().set(key, dishVOs);
+        cacheMetrics.payloadItems(CacheMetrics.DISH_CACHE, dishVOs.size());
 
     }
 
     public void clearDishCache(String pattern){
         Set<String> keys = redisTemplate.keys(pattern);
         if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+            Long deleted = redisTemplate.delete(keys);
+            cacheMetrics.evicted(CacheMetrics.DISH_CACHE, deleted == null ? 0 : deleted);
         }
     }
 
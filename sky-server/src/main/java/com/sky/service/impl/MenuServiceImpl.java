@@ -0,0 +1,184 @@
+package com.sky.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.constant.StatusConstant;
+import com.sky.entity.Category;
+import com.sky.enumeration.MenuItemType;
+import com.sky.json.JacksonObjectMapper;
+import com.sky.mapper.CategoryMapper;
+import com.sky.mapper.DishMapper;
+import com.sky.mapper.SetmealDishMapper;
+import com.sky.mapper.SetmealMapper;
+import com.sky.result.Result;
+import com.sky.service.MenuService;
+import com.sky.service.MenuVersionService;
+import com.sky.vo.DishVO;
+import com.sky.vo.MenuDeltaVO;
+import com.sky.vo.MenuSnapshotVO;
+import com.sky.vo.SetmealDetailVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 用户端菜单快照与增量同步
+ * <pre>
+ * - 快照包含全部启用分类、起售菜品和套餐，每个版本号在本节点只构建一次，缓存gzip后的JSON
+ * - 增量按MenuVersionService记录的变更id重新查询当前数据，查不到（删除、停售）的返回id
+ * - 菜品变更会影响包含它的套餐，增量中一并返回这些套餐
+ * - 先读版本号再查数据，查询走主库：从库延迟时可能把旧数据记在新版本号下，且该版本不会再重建
+ * </pre>
+ */
+@Service
+@Slf4j
+public class MenuServiceImpl implements MenuService {
+
+    // 变更过多时增量与快照相差无几，直接让客户端重新获取快照，避免过长的in列表
+    private static final int MAX_DELTA_CHANGES = 500;
+
+    private final ObjectMapper objectMapper = new JacksonObjectMapper();
+
+    // 构建快照时持锁查询数据库，使用ReentrantLock而不是synchronized，虚拟线程等待时不会占住载体线程
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private volatile CompressedSnapshot cachedSnapshot;
+
+    @Autowired
+    private MenuVersionService menuVersionService;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private DishMapper dishMapper;
+
+    @Autowired
+    private SetmealMapper setmealMapper;
+
+    @Autowired
+    private SetmealDishMapper setmealDishMapper;
+
+    @Override
+    public CompressedSnapshot getSnapshot() {
+        Long version = menuVersionService.currentVersion();
+        CompressedSnapshot cached = cachedSnapshot;
+        if (isUsable(cached, version)) {
+            return cached;
+        }
+        // 版本变化后只让一个线程构建，其余线程等待后直接复用
+        snapshotLock.lock();
+        try {
+            cached = cachedSnapshot;
+            if (isUsable(cached, version)) {
+                return cached;
+            }
+            CompressedSnapshot built = buildSnapshot(version);
+            // Redis不可用时版本号未知，不缓存
+            if (version != null) {
+                cachedSnapshot = built;
+            }
+            return built;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public MenuDeltaVO getDelta(Long since) {
+        Long version = menuVersionService.currentVersion();
+        // 版本号未知、客户端版本号无效或大于当前版本（Redis数据丢失后重新计数）时无法增量同步
+        if (version == null || since == null || since < 0 || since > version) {
+            return MenuDeltaVO.builder().version(version).fullSync(true).build();
+        }
+        MenuDeltaVO delta = MenuDeltaVO.builder().version(version).fullSync(false).build();
+        if (since.equals(version)) {
+            return delta;
+        }
+
+        Map<MenuItemType, Set<Long>> changes = menuVersionService.getChanges(since, version);
+        // 客户端版本号早于保留的变更记录
+        if (changes == null) {
+            delta.setFullSync(true);
+            return delta;
+        }
+        Set<Long> categoryIds = changes.get(MenuItemType.CATEGORY);
+        Set<Long> dishIds = changes.get(MenuItemType.DISH);
+        Set<Long> setmealIds = new HashSet<>(changes.get(MenuItemType.SETMEAL));
+        if (!dishIds.isEmpty()) {
+            setmealIds.addAll(setmealDishMapper.getSetmealIdsByDishIds(new ArrayList<>(dishIds)));
+        }
+        if (categoryIds.size() + dishIds.size() + setmealIds.size() > MAX_DELTA_CHANGES) {
+            delta.setFullSync(true);
+            return delta;
+        }
+
+        if (!categoryIds.isEmpty()) {
+            List<Category> categories = categoryMapper.listEnabledByIds(categoryIds);
+            delta.setCategories(categories);
+            delta.setRemovedCategoryIds(removedIds(categoryIds, categories, Category::getId));
+        }
+        if (!dishIds.isEmpty()) {
+            List<DishVO> dishes = dishMapper.listWithFlavorByIds(dishIds, StatusConstant.ENABLE);
+            delta.setDishes(dishes);
+            delta.setRemovedDishIds(removedIds(dishIds, dishes, DishVO::getId));
+        }
+        if (!setmealIds.isEmpty()) {
+            List<SetmealDetailVO> setmeals = setmealMapper.listDetailByIds(setmealIds, StatusConstant.ENABLE);
+            delta.setSetmeals(setmeals);
+            delta.setRemovedSetmealIds(removedIds(setmealIds, setmeals, SetmealDetailVO::getId));
+        }
+        return delta;
+    }
+
+    /**
+     * 缓存的快照可用：版本号未知时沿用已有快照，否则要求与当前版本一致
+     * 版本号变小（Redis数据丢失后重新计数）同样重建，避免旧快照一直沿用到计数追上
+     */
+    private boolean isUsable(CompressedSnapshot cached, Long version) {
+        if (cached == null) {
+            return false;
+        }
+        return version == null || version.equals(cached.getVersion());
+    }
+
+    private CompressedSnapshot buildSnapshot(Long version) {
+        MenuSnapshotVO snapshot = MenuSnapshotVO.builder()
+                .version(version)
+                .categories(categoryMapper.queryByType(null))
+                .dishes(dishMapper.listWithFlavorByIds(null, StatusConstant.ENABLE))
+                .setmeals(setmealMapper.listDetailByIds(null, StatusConstant.ENABLE))
+                .build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, Result.success(snapshot));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("菜单快照构建完成，版本：{}，分类：{}，菜品：{}，套餐：{}，压缩后：{}字节", version,
+                snapshot.getCategories().size(), snapshot.getDishes().size(), snapshot.getSetmeals().size(),
+                bytes.size());
+        return new CompressedSnapshot(version, bytes.toByteArray());
+    }
+
+    /**
+     * 变更的id中当前查不到的，即已删除或停售
+     */
+    private <T> List<Long> removedIds(Set<Long> changedIds, List<T> found, Function<T, Long> idGetter) {
+        Set<Long> removed = new HashSet<>(changedIds);
+        found.forEach(item -> removed.remove(idGetter.apply(item)));
+        return new ArrayList<>(removed);
+    }
+}
@@ -0,0 +1,222 @@
+package com.sky.service.impl;
+
+import com.sky.constant.CacheConstant;
+import com.sky.constant.RedisKeysConstant;
+import com.sky.enumeration.MenuItemType;
+import com.sky.properties.SkyCacheProperties;
+import com.sky.service.MenuVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 菜单版本号
+ * <pre>
+ * - 分类、菜品、套餐等菜单数据每次变更后INCR一次，版本号单调递增，多节点共享
+ * - 同一脚本内把变更的数据以新版本号为score写入ZSET，读到版本号V时V之前的变更一定已记录
+ * - 同一数据只保留最近一次变更的版本号，并删除早于sky.cache.menu-change-retention个版本的记录；
+ *   清理到的版本号另存一个key，客户端版本号低于它时无法增量同步
+ * - 客户端带上已有的版本号，与当前版本一致时无需重新下载，不一致时可按版本号增量同步
+ * - 提交前已读到旧数据的请求可能在删除缓存后才写回缓存，旧数据会带着新版本号返回；
+ *   因此提交后延迟sky.cache.menu-recheck-delay再清空一次菜单缓存，之后才递增版本号，每次变更客户端只重新下载一次；
+ *   延迟期间客户端沿用旧版本号和旧数据，延迟为0或无法调度时提交后立即递增
+ * </pre>
+ */
+@Service
+@Slf4j
+public class MenuVersionServiceImpl implements MenuVersionService, DisposableBean {
+
+    private static final String[] MENU_CACHES = {
+            CacheConstant.CATEGORY_CACHE, CacheConstant.SETMEAL_CACHE, CacheConstant.SETMEAL_DETAIL_CACHE};
+
+    /**
+     * KEYS: 版本号、变更记录、已清理到的版本号；ARGV[1]为保留的版本数，其余为变更的数据
+     */
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('INCR', KEYS[1]) " +
+            "for i = 2, #ARGV do redis.call('ZADD', KEYS[2], version, ARGV[i]) end " +
+            "local floor = version - tonumber(ARGV[1]) " +
+            "if floor > tonumber(redis.call('GET', KEYS[3]) or '0') then " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', floor) " +
+            "redis.call('SET', KEYS[3], floor) end " +
+            "return version", Long.class);
+
+    private static final String MEMBER_SEPARATOR = ":";
+    private static final int SCAN_BATCH_SIZE = 100;
+    private static final long SHUTDOWN_GRACE_MILLIS = 5000;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SkyCacheProperties skyCacheProperties;
+
+    /**
+     * 延迟复查只有菜单变更时才有任务，单线程即可
+     */
+    private final ScheduledThreadPoolExecutor recheckScheduler =
+            new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("menu-recheck-"));
+
+    @Override
+    public Long currentVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(RedisKeysConstant.MENU_VERSION_KEY);
+            return version == null ? 0L : Long.valueOf(version);
+        } catch (RuntimeException e) {
+            log.warn("读取菜单版本号失败：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void bumpAfterCommit(MenuItemType type, Collection<Long> ids) {
+        String[] members = ids.stream()
+                .filter(id -> id != null)
+                .distinct()
+                .map(id -> type.name() + MEMBER_SEPARATOR + id)
+                .toArray(String[]::new);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpAfterRecheck(members);
+                }
+            });
+        } else {
+            bumpAfterRecheck(members);
+        }
+    }
+
+    @Override
+    public Map<MenuItemType, Set<Long>> getChanges(long since, long until) {
+        Map<MenuItemType, Set<Long>> changes = new EnumMap<>(MenuItemType.class);
+        for (MenuItemType type : MenuItemType.values()) {
+            changes.put(type, new HashSet<>());
+        }
+        // score为since的变更客户端已有，左开区间
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .rangeByScore(RedisKeysConstant.MENU_CHANGES_KEY, since + 1, until);
+        // 读完记录后再读清理位置：读取期间发生的清理也能发现
+        String floor = stringRedisTemplate.opsForValue().get(RedisKeysConstant.MENU_CHANGES_FLOOR_KEY);
+        if (floor != null && since < Long.parseLong(floor)) {
+            return null;
+        }
+        if (members == null) {
+            return changes;
+        }
+        for (String member : members) {
+            int separator = member.indexOf(MEMBER_SEPARATOR);
+            try {
+                MenuItemType type = MenuItemType.valueOf(member.substring(0, separator));
+                changes.get(type).add(Long.valueOf(member.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                log.warn("忽略无法解析的菜单变更记录：{}", member);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 关闭时执行已排队的复查，避免变更丢失版本号递增
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        recheckScheduler.shutdown();
+        long waitMillis = skyCacheProperties.getMenuRecheckDelay().toMillis() + SHUTDOWN_GRACE_MILLIS;
+        if (!recheckScheduler.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("菜单缓存延迟复查未在关闭前完成");
+            recheckScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 延迟复查：清空菜单缓存后递增版本号；不延迟或无法调度时立即递增
+     */
+    private void bumpAfterRecheck(String[] members) {
+        long delayMillis = skyCacheProperties.getMenuRecheckDelay().toMillis();
+        if (delayMillis <= 0) {
+            bump(members);
+            return;
+        }
+        try {
+            recheckScheduler.schedule(() -> {
+                try {
+                    evictMenuCaches();
+                } catch (RuntimeException e) {
+                    log.warn("菜单缓存延迟删除失败：{}", e.getMessage());
+                }
+                bump(members);
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("应用关闭中，跳过菜单缓存延迟复查");
+            bump(members);
+        }
+    }
+
+    private void evictMenuCaches() {
+        for (String cacheName : MENU_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        // 与缓存写入器一致使用SCAN分批删除，不用阻塞Redis的KEYS
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisKeysConstant.DISH_BY_CATERGORYID_KEY + "*").count(SCAN_BATCH_SIZE).build();
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == SCAN_BATCH_SIZE) {
+                    stringRedisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            stringRedisTemplate.delete(batch);
+        }
+    }
+
+    private void bump(String[] members) {
+        try {
+            Object[] args = new Object[members.length + 1];
+            args[0] = String.valueOf(Math.max(1, skyCacheProperties.getMenuChangeRetention()));
+            System.arraycopy(members, 0, args, 1, members.length);
+            Long version = stringRedisTemplate.execute(BUMP_SCRIPT,
+                    Arrays.asList(RedisKeysConstant.MENU_VERSION_KEY, RedisKeysConstant.MENU_CHANGES_KEY,
+                            RedisKeysConstant.MENU_CHANGES_FLOOR_KEY),
+                    args);
+            log.info("菜单版本号更新为：{}，变更：{}", version, Arrays.toString(members));
+        } catch (RuntimeException e) {
+            // 不回滚已提交的写操作；客户端会沿用旧数据直到下一次菜单变更
+            log.error("更新菜单版本号失败", e);
+        }
+    }
+}
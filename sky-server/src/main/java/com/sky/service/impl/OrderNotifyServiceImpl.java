@@ -0,0 +1,44 @@
+package com.sky.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.sky.constant.RedisKeysConstant;
+import com.sky.entity.Orders;
+import com.sky.service.OrderNotifyService;
+import com.sky.vo.OrderPushVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class OrderNotifyServiceImpl implements OrderNotifyService {
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 客户催单
+     * @param orders
+     */
+    @Override
+    public void notifyReminder(Orders orders) {
+        publish(OrderPushVO.builder()
+                .type(OrderPushVO.REMINDER)
+                .orderId(orders.getId())
+                .content("订单号：" + orders.getNumber())
+                .build());
+    }
+
+    /**
+     * 发布到Redis频道，由各节点的订阅者转发给本地WebSocket会话
+     * 推送失败不影响催单主流程
+     */
+    private void publish(OrderPushVO push) {
+        try {
+            stringRedisTemplate.convertAndSend(RedisKeysConstant.ORDER_PUSH_CHANNEL, JSON.toJSONString(push));
+        } catch (Exception e) {
+            log.warn("订单推送消息发布失败，orderId：{}，err：{}", push.getOrderId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.sky.service.impl;
+
+import com.sky.constant.MessageConstant;
+import com.sky.context.UserContext;
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.exception.OrderBusinessException;
+import com.sky.exception.ReportBusinessException;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.OrderMapper;
+import com.sky.mapper.TurnoverDailyMapper;
+import com.sky.result.CursorPageResult;
+import com.sky.service.OrderNotifyService;
+import com.sky.service.OrderService;
+import com.sky.service.OrderStatisticsService;
+import com.sky.service.SalesRankingService;
+import com.sky.service.WorkspaceService;
+import com.sky.vo.OrderStatisticsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@Slf4j
+public class OrderServiceImpl implements OrderService {
+
+    // 单页默认条数与上限
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    // 带条件估算总数时最多扫描的行数
+    private static final int APPROXIMATE_COUNT_CAP = 10000;
+    private static final String CURSOR_SEPARATOR = "|";
+    // 状态统计允许的最大天数
+    private static final int MAX_STATISTICS_DAYS = 366;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderNotifyService orderNotifyService;
+
+    @Autowired
+    private TurnoverDailyMapper turnoverDailyMapper;
+
+    @Autowired
+    private OrderDetailMapper orderDetailMapper;
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private OrderStatisticsService orderStatisticsService;
+
+    /**
+     * 订单条件搜索（游标分页）
+     * <pre>
+     * - 按 (order_time, id) 倒序，使用上一页最后一条记录作为游标定位，不再执行 COUNT(*) 和 LIMIT offset
+     * - 多查一条用于判断是否还有下一页
+     * - withTotal=true 时返回估算总数：无筛选条件读表统计信息，有条件时最多统计 APPROXIMATE_COUNT_CAP 行
+     * </pre>
+     * @param ordersPageQueryDTO
+     * @return com.sky.result.CursorPageResult
+     **/
+    @Override
+    public CursorPageResult conditionSearch(OrdersPageQueryDTO ordersPageQueryDTO) {
+        int pageSize = ordersPageQueryDTO.getPageSize();
+        if (pageSize <= 0) {
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+
+        LocalDateTime cursorTime = null;
+        Long cursorId = null;
+        String cursor = ordersPageQueryDTO.getCursor();
+        if (cursor != null && !cursor.isEmpty()) {
+            Cursor decoded = decodeCursor(cursor);
+            cursorTime = decoded.orderTime;
+            cursorId = decoded.id;
+        }
+
+        List<Orders> orders = orderMapper.pageQueryByKeyset(ordersPageQueryDTO, cursorTime, cursorId, pageSize + 1);
+
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Orders last = orders.get(orders.size() - 1);
+            nextCursor = encodeCursor(last.getOrderTime(), last.getId());
+        }
+
+        Long approximateTotal = null;
+        if (Boolean.TRUE.equals(ordersPageQueryDTO.getWithTotal())) {
+            approximateTotal = hasCondition(ordersPageQueryDTO)
+                    ? orderMapper.countByQueryCapped(ordersPageQueryDTO, APPROXIMATE_COUNT_CAP)
+                    : orderMapper.estimateTableRows();
+        }
+
+        return CursorPageResult.builder()
+                .records(orders)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+
+    /**
+     * 客户催单
+     * @param id 订单id
+     **/
+    @Override
+    public void reminder(Long id) {
+        Orders orders = orderMapper.getById(id);
+        // 只能催自己的订单
+        if (orders == null || !Objects.equals(orders.getUserId(), UserContext.getCurrentId())) {
+            throw new OrderBusinessException(MessageConstant.ORDER_NOT_FOUND);
+        }
+        orderNotifyService.notifyReminder(orders);
+    }
+
+    /**
+     * 完成订单
+     * <pre>
+     * - 只有派送中的订单可以完成
+     * - 同一事务内将订单金额累加到下单日期的营业额日汇总
+     * - 事务提交后累加当天商品销量排行与工作台计数，并清除下单日期的订单统计缓存
+     * </pre>
+     * @param id 订单id
+     **/
+    @Override
+    @Transactional
+    public void complete(Long id) {
+        Orders orders = orderMapper.getById(id);
+        if (orders == null) {
+            throw new OrderBusinessException(MessageConstant.ORDER_NOT_FOUND);
+        }
+        int updated = orderMapper.updateStatusWithDeliveryTime(id, Orders.DELIVERY_IN_PROGRESS,
+                Orders.COMPLETED, LocalDateTime.now());
+        if (updated == 0) {
+            throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
+        }
+        LocalDate orderDate = orders.getOrderTime().toLocalDate();
+        turnoverDailyMapper.accumulate(orderDate, orders.getAmount());
+
+        List<OrderDetail> orderDetails = orderDetailMapper.getByOrderId(id);
+        runAfterCommit(() -> salesRankingService.recordSales(orderDate, orderDetails));
+        runAfterCommit(() -> workspaceService.onOrderCompleted(orders));
+        runAfterCommit(() -> orderStatisticsService.evict(orderDate));
+    }
+
+    /**
+     * 各状态订单数量统计
+     * @param begin
+     * @param end
+     * @return com.sky.vo.OrderStatisticsVO
+     **/
+    @Override
+    public OrderStatisticsVO statistics(LocalDate begin, LocalDate end) {
+        if (begin == null || end == null || begin.isAfter(end)
+                || ChronoUnit.DAYS.between(begin, end) >= MAX_STATISTICS_DAYS) {
+            throw new ReportBusinessException(MessageConstant.REPORT_DATE_RANGE_ERROR);
+        }
+        int toBeConfirmed = 0;
+        int confirmed = 0;
+        int deliveryInProgress = 0;
+        for (Map<Integer, Integer> counts : orderStatisticsService.countByDateAndStatus(begin, end).values()) {
+            toBeConfirmed += counts.getOrDefault(Orders.TO_BE_CONFIRMED, 0);
+            confirmed += counts.getOrDefault(Orders.CONFIRMED, 0);
+            deliveryInProgress += counts.getOrDefault(Orders.DELIVERY_IN_PROGRESS, 0);
+        }
+
+        OrderStatisticsVO orderStatisticsVO = new OrderStatisticsVO();
+        orderStatisticsVO.setToBeConfirmed(toBeConfirmed);
+        orderStatisticsVO.setConfirmed(confirmed);
+        orderStatisticsVO.setDeliveryInProgress(deliveryInProgress);
+        return orderStatisticsVO;
+    }
+
+    /**
+     * 事务提交后执行，避免数据库回滚但Redis已累加；无事务时直接执行
+     * 执行失败只记录日志，不影响已提交的订单
+     * @param task
+     */
+    private void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.warn("订单完成后置任务执行失败，err：{}", e.getMessage());
+                    }
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 是否带有筛选条件
+     * @param query
+     * @return boolean
+     **/
+    private boolean hasCondition(OrdersPageQueryDTO query) {
+        return (query.getNumber() != null && !query.getNumber().isEmpty())
+                || (query.getPhone() != null && !query.getPhone().isEmpty())
+                || query.getUserId() != null
+                || query.getStatus() != null
+                || query.getBeginTime() != null
+                || query.getEndTime() != null;
+    }
+
+    /**
+     * 生成不透明游标：Base64(orderTime|id)
+     * 分页查询已排除order_time为空的订单，这里为空说明数据异常，不生成无法解析的游标
+     */
+    static String encodeCursor(LocalDateTime orderTime, Long id) {
+        if (orderTime == null || id == null) {
+            throw new IllegalArgumentException("订单游标的下单时间和id不能为空");
+        }
+        String raw = orderTime + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，格式错误时抛出ORDER_CURSOR_INVALID
+     */
+    static Cursor decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = decoded.indexOf(CURSOR_SEPARATOR);
+            if (idx <= 0) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return new Cursor(LocalDateTime.parse(decoded.substring(0, idx)), Long.valueOf(decoded.substring(idx + 1)));
+        } catch (RuntimeException e) {
+            log.warn("订单搜索游标格式错误，cursor：{}", cursor);
+            throw new OrderBusinessException(MessageConstant.ORDER_CURSOR_INVALID);
+        }
+    }
+
+    /**
+     * 游标位置：上一页最后一条记录的 (order_time, id)
+     */
+    static final class Cursor {
+        final LocalDateTime orderTime;
+        final Long id;
+
+        Cursor(LocalDateTime orderTime, Long id) {
+            this.orderTime = orderTime;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.sky.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.sky.constant.MessageConstant;
+import com.sky.constant.RedisKeysConstant;
+import com.sky.dto.OrderStatusCountDTO;
+import com.sky.exception.ReportBusinessException;
+import com.sky.mapper.OrderMapper;
+import com.sky.service.OrderStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Slf4j
+public class OrderStatisticsServiceImpl implements OrderStatisticsService {
+
+    // 每段查询的最大天数
+    private static final int CHUNK_DAYS = 31;
+    // 全部分段查询的最长等待时间，超时后本次统计失败，不无限占用请求线程
+    private static final long QUERY_TIMEOUT_SECONDS = 30;
+    private static final TypeReference<Map<Integer, Integer>> STATUS_COUNT_TYPE = new TypeReference<Map<Integer, Integer>>() {};
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    @Qualifier("reportExecutor")
+    private Executor reportExecutor;
+
+    /**
+     * 按日期和状态统计订单数量
+     * <pre>
+     * - 今天之前的日期读Redis缓存（一次HMGET），只有未缓存的日期和今天查库
+     * - 待查库的日期按连续区间切成最多CHUNK_DAYS天的分段，在reportExecutor上并行执行分组查询
+     * - 查库得到的历史日期写回缓存（没有订单的日期也缓存），今天始终重新统计
+     * </pre>
+     * @param begin
+     * @param end
+     * @return java.util.Map
+     **/
+    @Override
+    public Map<LocalDate, Map<Integer, Integer>> countByDateAndStatus(LocalDate begin, LocalDate end) {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Map<Integer, Integer>> result = new LinkedHashMap<>();
+
+        List<LocalDate> historyDates = new ArrayList<>();
+        for (LocalDate date = begin; !date.isAfter(end) && date.isBefore(today); date = date.plusDays(1)) {
+            historyDates.add(date);
+        }
+        List<Object> cached = historyDates.isEmpty() ? new ArrayList<>()
+                : stringRedisTemplate.opsForHash().multiGet(RedisKeysConstant.ORDER_STATS_DAILY_KEY, toFields(historyDates));
+
+        // 未命中缓存的连续日期区间，[开始, 结束]
+        List<LocalDate[]> chunks = new ArrayList<>();
+        LocalDate chunkBegin = null;
+        LocalDate previous = null;
+        for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+            int index = (int) (date.toEpochDay() - begin.toEpochDay());
+            Object value = index < cached.size() ? cached.get(index) : null;
+            if (value != null) {
+                result.put(date, JSON.parseObject((String) value, STATUS_COUNT_TYPE));
+                continue;
+            }
+            result.put(date, null);
+            if (chunkBegin != null && (!previous.plusDays(1).equals(date)
+                    || date.toEpochDay() - chunkBegin.toEpochDay() >= CHUNK_DAYS)) {
+                chunks.add(new LocalDate[]{chunkBegin, previous});
+                chunkBegin = null;
+            }
+            if (chunkBegin == null) {
+                chunkBegin = date;
+            }
+            previous = date;
+        }
+        if (chunkBegin != null) {
+            chunks.add(new LocalDate[]{chunkBegin, previous});
+        }
+
+        if (!chunks.isEmpty()) {
+            List<CompletableFuture<List<OrderStatusCountDTO>>> futures = new ArrayList<>(chunks.size());
+            try {
+                for (LocalDate[] chunk : chunks) {
+                    futures.add(CompletableFuture.supplyAsync(() -> orderMapper.countGroupByDateAndStatus(
+                            chunk[0].atStartOfDay(), chunk[1].plusDays(1).atStartOfDay()), reportExecutor)
+                            .orTimeout(QUERY_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                }
+            } catch (RejectedExecutionException e) {
+                // 统计线程池已满时快速失败，不在请求线程上串行补做
+                futures.forEach(future -> future.cancel(false));
+                log.warn("报表统计线程池已满，拒绝本次统计，{} ~ {}", begin, end);
+                throw new ReportBusinessException(MessageConstant.REPORT_BUSY);
+            }
+
+            Map<LocalDate, Map<Integer, Integer>> computed = new HashMap<>();
+            for (LocalDate[] chunk : chunks) {
+                for (LocalDate date = chunk[0]; !date.isAfter(chunk[1]); date = date.plusDays(1)) {
+                    computed.put(date, new HashMap<>());
+                }
+            }
+            try {
+                for (CompletableFuture<List<OrderStatusCountDTO>> future : futures) {
+                    for (OrderStatusCountDTO count : future.join()) {
+                        computed.get(count.getOrderDate()).put(count.getStatus(), count.getOrderCount());
+                    }
+                }
+            } catch (CompletionException e) {
+                futures.forEach(future -> future.cancel(false));
+                if (e.getCause() instanceof TimeoutException) {
+                    log.error("订单统计分段查询超过{}秒未完成，{} ~ {}", QUERY_TIMEOUT_SECONDS, begin, end);
+                    throw new ReportBusinessException(MessageConstant.REPORT_FAILED);
+                }
+                log.error("订单统计分段查询失败，{} ~ {}", begin, end, e.getCause());
+                throw new ReportBusinessException(MessageConstant.REPORT_FAILED);
+            }
+            result.putAll(computed);
+
+            Map<String, String> toCache = new HashMap<>();
+            computed.forEach((date, counts) -> {
+                if (date.isBefore(today)) {
+                    toCache.put(date.toString(), JSON.toJSONString(counts));
+                }
+            });
+            if (!toCache.isEmpty()) {
+                stringRedisTemplate.opsForHash().putAll(RedisKeysConstant.ORDER_STATS_DAILY_KEY, toCache);
+            }
+            log.debug("订单统计查库{}段，{} ~ {}", chunks.size(), begin, end);
+        }
+        return result;
+    }
+
+    /**
+     * 清除某一天的统计缓存
+     * @param date
+     **/
+    @Override
+    public void evict(LocalDate date) {
+        stringRedisTemplate.opsForHash().delete(RedisKeysConstant.ORDER_STATS_DAILY_KEY, date.toString());
+    }
+
+    /**
+     * 日期转为HASH的field
+     */
+    private List<Object> toFields(List<LocalDate> dates) {
+        List<Object> fields = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            fields.add(date.toString());
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,339 @@
+package com.sky.service.impl;
+
+import com.sky.annotation.ReadOnly;
+import com.sky.constant.MessageConstant;
+import com.sky.entity.Orders;
+import com.sky.entity.TurnoverDaily;
+import com.sky.entity.UserSignupDaily;
+import com.sky.exception.ReportBusinessException;
+import com.sky.mapper.OrderMapper;
+import com.sky.mapper.TurnoverDailyMapper;
+import com.sky.mapper.UserMapper;
+import com.sky.mapper.UserSignupDailyMapper;
+import com.sky.service.OrderStatisticsService;
+import com.sky.service.ReportService;
+import com.sky.vo.OrderReportVO;
+import com.sky.vo.TurnoverReportVO;
+import com.sky.vo.UserReportVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+@Service
+@Slf4j
+public class ReportServiceImpl implements ReportService {
+
+    // 单次统计允许的最大天数
+    private static final int MAX_REPORT_DAYS = 366;
+
+    // 导出时内存中保留的行数，超出部分刷到临时文件
+    private static final int EXPORT_ROW_WINDOW = 100;
+    private static final DateTimeFormatter EXPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] EXPORT_HEADERS = {"订单号", "下单时间", "订单状态", "实收金额", "收货人", "手机号", "地址"};
+    private static final String[] ORDER_STATUS_NAMES = {"", "待付款", "待接单", "已接单", "派送中", "已完成", "已取消"};
+
+    // 回填每日新增用户时每段扫描的天数
+    private static final int SIGNUP_BACKFILL_CHUNK_DAYS = 30;
+
+    @Autowired
+    private TurnoverDailyMapper turnoverDailyMapper;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserSignupDailyMapper userSignupDailyMapper;
+
+    @Autowired
+    private OrderStatisticsService orderStatisticsService;
+
+    /**
+     * 营业额统计
+     * 读取营业额日汇总表的一次范围扫描，没有汇总行的日期按0补齐
+     * @param begin
+     * @param end
+     * @return com.sky.vo.TurnoverReportVO
+     **/
+    @Override
+    @ReadOnly
+    public TurnoverReportVO getTurnoverStatistics(LocalDate begin, LocalDate end) {
+        checkDateRange(begin, end);
+
+        List<TurnoverDaily> rollups = turnoverDailyMapper.listByDateRange(begin, end);
+        Map<LocalDate, BigDecimal> turnoverByDate = new HashMap<>();
+        for (TurnoverDaily rollup : rollups) {
+            turnoverByDate.put(rollup.getOrderDate(), rollup.getTurnover());
+        }
+
+        StringJoiner dateList = new StringJoiner(",");
+        StringJoiner turnoverList = new StringJoiner(",");
+        for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+            dateList.add(date.toString());
+            turnoverList.add(turnoverByDate.getOrDefault(date, BigDecimal.ZERO).toPlainString());
+        }
+
+        return TurnoverReportVO.builder()
+                .dateList(dateList.toString())
+                .turnoverList(turnoverList.toString())
+                .build();
+    }
+
+    /**
+     * 用户统计
+     * <pre>
+     * - 新增用户读取每日新增用户表的一次范围扫描，没有记录的日期按0补齐
+     * - 用户总量 = 开始日期之前的累计数 + 区间内逐日累加，不再对user表做逐日count
+     * </pre>
+     * @param begin
+     * @param end
+     * @return com.sky.vo.UserReportVO
+     **/
+    @Override
+    @ReadOnly
+    public UserReportVO getUserStatistics(LocalDate begin, LocalDate end) {
+        checkDateRange(begin, end);
+
+        List<UserSignupDaily> rows = userSignupDailyMapper.listByDateRange(begin, end);
+        Map<LocalDate, Integer> newUsersByDate = new HashMap<>();
+        for (UserSignupDaily row : rows) {
+            newUsersByDate.put(row.getSignupDate(), row.getNewUsers());
+        }
+
+        long totalUsers = userSignupDailyMapper.sumBefore(begin);
+        StringJoiner dateList = new StringJoiner(",");
+        StringJoiner newUserList = new StringJoiner(",");
+        StringJoiner totalUserList = new StringJoiner(",");
+        for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+            int newUsers = newUsersByDate.getOrDefault(date, 0);
+            totalUsers += newUsers;
+            dateList.add(date.toString());
+            newUserList.add(String.valueOf(newUsers));
+            totalUserList.add(String.valueOf(totalUsers));
+        }
+
+        return UserReportVO.builder()
+                .dateList(dateList.toString())
+                .newUserList(newUserList.toString())
+                .totalUserList(totalUserList.toString())
+                .build();
+    }
+
+    /**
+     * 订单统计
+     * 有效订单为已完成的订单，订单完成率 = 有效订单数 / 订单总数
+     * @param begin
+     * @param end
+     * @return com.sky.vo.OrderReportVO
+     **/
+    @Override
+    public OrderReportVO getOrderStatistics(LocalDate begin, LocalDate end) {
+        checkDateRange(begin, end);
+
+        Map<LocalDate, Map<Integer, Integer>> countsByDate = orderStatisticsService.countByDateAndStatus(begin, end);
+
+        int totalOrderCount = 0;
+        int validOrderCount = 0;
+        StringJoiner dateList = new StringJoiner(",");
+        StringJoiner orderCountList = new StringJoiner(",");
+        StringJoiner validOrderCountList = new StringJoiner(",");
+        for (Map.Entry<LocalDate, Map<Integer, Integer>> entry : countsByDate.entrySet()) {
+            int orderCount = 0;
+            for (Integer count : entry.getValue().values()) {
+                orderCount += count;
+            }
+            int validCount = entry.getValue().getOrDefault(Orders.COMPLETED, 0);
+            totalOrderCount += orderCount;
+            validOrderCount += validCount;
+            dateList.add(entry.getKey().toString());
+            orderCountList.add(String.valueOf(orderCount));
+            validOrderCountList.add(String.valueOf(validCount));
+        }
+
+        return OrderReportVO.builder()
+                .dateList(dateList.toString())
+                .orderCountList(orderCountList.toString())
+                .validOrderCountList(validOrderCountList.toString())
+                .totalOrderCount(totalOrderCount)
+                .validOrderCount(validOrderCount)
+                .orderCompletionRate(totalOrderCount == 0 ? 0D : (double) validOrderCount / totalOrderCount)
+                .build();
+    }
+
+    /**
+     * 回填每日新增用户
+     * <pre>
+     * - 每次只扫描SIGNUP_BACKFILL_CHUNK_DAYS天的user记录（走create_time索引），避免一次性全表分组
+     * - 每段结果以覆盖方式写入，重复执行结果一致
+     * - 没有注册用户的日期以0覆盖，保证与user表一致
+     * - 只回填今天之前已结束的日期：今天仍有注册在累加计数，覆盖写入会丢掉统计与写入之间的注册
+     * </pre>
+     * @param begin
+     * @param end
+     **/
+    @Override
+    public void backfillUserSignups(LocalDate begin, LocalDate end) {
+        if (begin == null) {
+            LocalDateTime earliest = userMapper.getEarliestCreateTime();
+            if (earliest == null) {
+                log.info("user表无数据，无需回填每日新增用户");
+                return;
+            }
+            begin = earliest.toLocalDate();
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (end == null) {
+            end = yesterday;
+        }
+        if (begin.isAfter(end)) {
+            throw new ReportBusinessException(MessageConstant.REPORT_DATE_RANGE_ERROR);
+        }
+        if (end.isAfter(yesterday)) {
+            end = yesterday;
+            if (begin.isAfter(end)) {
+                log.info("今天的新增用户仍在累加，不回填");
+                return;
+            }
+        }
+
+        int chunks = 0;
+        for (LocalDate chunkBegin = begin; !chunkBegin.isAfter(end); chunkBegin = chunkBegin.plusDays(SIGNUP_BACKFILL_CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkBegin.plusDays(SIGNUP_BACKFILL_CHUNK_DAYS - 1);
+            if (chunkEnd.isAfter(end)) {
+                chunkEnd = end;
+            }
+
+            List<UserSignupDaily> counted = userMapper.countGroupBySignupDate(
+                    chunkBegin.atStartOfDay(), chunkEnd.plusDays(1).atStartOfDay());
+            Map<LocalDate, Integer> newUsersByDate = new HashMap<>();
+            for (UserSignupDaily row : counted) {
+                newUsersByDate.put(row.getSignupDate(), row.getNewUsers());
+            }
+
+            List<UserSignupDaily> rows = new ArrayList<>();
+            for (LocalDate date = chunkBegin; !date.isAfter(chunkEnd); date = date.plusDays(1)) {
+                rows.add(UserSignupDaily.builder()
+                        .signupDate(date)
+                        .newUsers(newUsersByDate.getOrDefault(date, 0))
+                        .build());
+            }
+            userSignupDailyMapper.upsertBatch(rows);
+            chunks++;
+        }
+        log.info("每日新增用户回填完成，{} ~ {}，共{}段", begin, end, chunks);
+    }
+
+    /**
+     * 导出订单明细Excel
+     * <pre>
+     * - MyBatis Cursor逐行读取订单，SXSSFWorkbook只在内存保留EXPORT_ROW_WINDOW行
+     * - 工作簿直接写入响应输出流，堆内存占用与导出行数无关
+     * - 游标依赖事务保持连接，事务结束时关闭
+     * </pre>
+     * @param begin
+     * @param end
+     * @param response
+     **/
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDate begin, LocalDate end, HttpServletResponse response) {
+        checkDateRange(begin, end);
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        // 临时文件压缩，降低大批量导出时的磁盘占用
+        workbook.setCompressTempFiles(true);
+        try (Cursor<Orders> cursor = orderMapper.cursorByOrderTime(begin.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+            Sheet sheet = workbook.createSheet("订单明细");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < EXPORT_HEADERS.length; i++) {
+                header.createCell(i).setCellValue(EXPORT_HEADERS[i]);
+            }
+
+            int rowIndex = 1;
+            for (Orders orders : cursor) {
+                Row row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue(orders.getNumber());
+                row.createCell(1).setCellValue(orders.getOrderTime() == null ? "" : EXPORT_TIME_FORMATTER.format(orders.getOrderTime()));
+                row.createCell(2).setCellValue(statusName(orders.getStatus()));
+                row.createCell(3).setCellValue(orders.getAmount() == null ? 0D : orders.getAmount().doubleValue());
+                row.createCell(4).setCellValue(orders.getConsignee());
+                row.createCell(5).setCellValue(orders.getPhone());
+                row.createCell(6).setCellValue(orders.getAddress());
+            }
+            log.info("订单明细导出完成，{} ~ {}，共{}行", begin, end, rowIndex - 1);
+
+            String fileName = URLEncoder.encode("订单明细_" + begin + "_" + end + ".xlsx", StandardCharsets.UTF_8.name());
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.setHeader("Content-Disposition", "attachment;filename*=UTF-8''" + fileName);
+            ServletOutputStream out = response.getOutputStream();
+            workbook.write(out);
+            out.flush();
+        } catch (IOException e) {
+            abortIfCommitted(response, begin, end, e);
+            log.error("订单明细导出失败，{} ~ {}", begin, end, e);
+            throw new ReportBusinessException(MessageConstant.EXPORT_FAILED);
+        } catch (RuntimeException e) {
+            abortIfCommitted(response, begin, end, e);
+            throw e;
+        } finally {
+            // 删除SXSSF产生的临时文件
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * 响应已提交时文件已开始下载，不能再返回JSON错误：
+     * 抛出非业务异常交给容器中断连接，客户端得到下载失败，而不是在文件末尾拼上错误JSON后当作完整文件
+     */
+    private void abortIfCommitted(HttpServletResponse response, LocalDate begin, LocalDate end, Exception e) {
+        if (!response.isCommitted()) {
+            return;
+        }
+        log.error("订单明细导出中断，已发送部分文件，{} ~ {}", begin, end, e);
+        throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+    }
+
+    /**
+     * 订单状态名称
+     */
+    private String statusName(Integer status) {
+        if (status == null || status < 1 || status >= ORDER_STATUS_NAMES.length) {
+            return "";
+        }
+        return ORDER_STATUS_NAMES[status];
+    }
+
+    /**
+     * 校验统计日期范围
+     */
+    private void checkDateRange(LocalDate begin, LocalDate end) {
+        if (begin == null || end == null || begin.isAfter(end)
+                || ChronoUnit.DAYS.between(begin, end) >= MAX_REPORT_DAYS) {
+            throw new ReportBusinessException(MessageConstant.REPORT_DATE_RANGE_ERROR);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.sky.service.impl;
+
+import com.sky.constant.MessageConstant;
+import com.sky.constant.RedisKeysConstant;
+import com.sky.dto.GoodsSalesDTO;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.exception.ReportBusinessException;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.service.SalesRankingService;
+import com.sky.vo.SalesTop10ReportVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class SalesRankingServiceImpl implements SalesRankingService {
+
+    private static final int TOP_N = 10;
+    // 单次查询、重建允许的最大天数
+    private static final int MAX_RANGE_DAYS = 366;
+    // 每日排行保留天数，超出后自然过期，可随时从MySQL重建
+    private static final long DAILY_KEY_TTL_DAYS = 400;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private OrderDetailMapper orderDetailMapper;
+
+    /**
+     * 累加当天销量，同名商品（菜品或套餐）合并计数
+     * @param orderDate
+     * @param orderDetails
+     */
+    @Override
+    public void recordSales(LocalDate orderDate, List<OrderDetail> orderDetails) {
+        if (orderDetails == null || orderDetails.isEmpty()) {
+            return;
+        }
+        String key = keyOfDate(orderDate);
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        for (OrderDetail detail : orderDetails) {
+            zSet.incrementScore(key, detail.getName(), detail.getNumber());
+        }
+        stringRedisTemplate.expire(key, DAILY_KEY_TTL_DAYS, TimeUnit.DAYS);
+    }
+
+    /**
+     * 销量前10
+     * <pre>
+     * - 单日直接 ZREVRANGE
+     * - 多日先 ZUNIONSTORE 到临时key，再 ZREVRANGE，读取后删除临时key
+     * </pre>
+     * @param begin
+     * @param end
+     * @return com.sky.vo.SalesTop10ReportVO
+     */
+    @Override
+    public SalesTop10ReportVO getSalesTop10(LocalDate begin, LocalDate end) {
+        List<String> keys = keysOfRange(begin, end);
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+
+        Set<ZSetOperations.TypedTuple<String>> top;
+        if (keys.size() == 1) {
+            top = zSet.reverseRangeWithScores(keys.get(0), 0, TOP_N - 1);
+        } else {
+            String unionKey = RedisKeysConstant.SALES_UNION_KEY + UUID.randomUUID();
+            try {
+                zSet.unionAndStore(keys.get(0), keys.subList(1, keys.size()), unionKey);
+                top = zSet.reverseRangeWithScores(unionKey, 0, TOP_N - 1);
+            } finally {
+                stringRedisTemplate.delete(unionKey);
+            }
+        }
+
+        StringJoiner nameList = new StringJoiner(",");
+        StringJoiner numberList = new StringJoiner(",");
+        if (top != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : top) {
+                nameList.add(tuple.getValue());
+                numberList.add(String.valueOf(tuple.getScore() == null ? 0 : tuple.getScore().longValue()));
+            }
+        }
+        return SalesTop10ReportVO.builder()
+                .nameList(nameList.toString())
+                .numberList(numberList.toString())
+                .build();
+    }
+
+    /**
+     * 从MySQL按天重建销量排行，先删后写
+     * @param begin
+     * @param end
+     */
+    @Override
+    public void rebuild(LocalDate begin, LocalDate end) {
+        List<String> keys = keysOfRange(begin, end);
+        LocalDate date = begin;
+        for (String key : keys) {
+            List<GoodsSalesDTO> sales = orderDetailMapper.sumSalesByOrderTime(
+                    date.atStartOfDay(), date.plusDays(1).atStartOfDay(), Orders.COMPLETED);
+            stringRedisTemplate.delete(key);
+            if (!sales.isEmpty()) {
+                Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+                for (GoodsSalesDTO goods : sales) {
+                    tuples.add(ZSetOperations.TypedTuple.of(goods.getName(), goods.getNumber().doubleValue()));
+                }
+                stringRedisTemplate.opsForZSet().add(key, tuples);
+                stringRedisTemplate.expire(key, DAILY_KEY_TTL_DAYS, TimeUnit.DAYS);
+            }
+            date = date.plusDays(1);
+        }
+        log.info("销量排行重建完成，{} ~ {}", begin, end);
+    }
+
+    /**
+     * 上线前完成的订单只在MySQL中，每日排行为空；以标记key保证只回填一次，回填失败时删除标记，下次启动重试
+     * 没有销量的日期本来就没有key，不能以key是否存在判断是否需要回填
+     */
+    @Override
+    public void backfillIfAbsent() {
+        LocalDate today = LocalDate.now();
+        Boolean absent = stringRedisTemplate.opsForValue()
+                .setIfAbsent(RedisKeysConstant.SALES_BACKFILL_KEY, today.toString());
+        if (!Boolean.TRUE.equals(absent)) {
+            return;
+        }
+        try {
+            rebuild(today.minusDays(MAX_RANGE_DAYS - 1), today);
+        } catch (RuntimeException e) {
+            stringRedisTemplate.delete(RedisKeysConstant.SALES_BACKFILL_KEY);
+            throw e;
+        }
+    }
+
+    private String keyOfDate(LocalDate date) {
+        return RedisKeysConstant.SALES_DAILY_KEY + date;
+    }
+
+    /**
+     * 校验日期范围并生成每天的key
+     */
+    private List<String> keysOfRange(LocalDate begin, LocalDate end) {
+        if (begin == null || end == null || begin.isAfter(end)
+                || ChronoUnit.DAYS.between(begin, end) >= MAX_RANGE_DAYS) {
+            throw new ReportBusinessException(MessageConstant.REPORT_DATE_RANGE_ERROR);
+        }
+        List<String> keys = new ArrayList<>();
+        for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+            keys.add(keyOfDate(date));
+        }
+        return keys;
+    }
+}
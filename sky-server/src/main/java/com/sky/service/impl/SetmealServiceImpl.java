@@ -58,6 +58,7 @@ package com.sky.service.impl;
 
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
+import com.sky.constant.CacheConstant;
 import com.sky.constant.MessageConstant;
 import com.sky.constant.StatusConstant;
 import com.sky.dto.SetmealDTO;
@@ -65,23 +66,38 @@ import com.sky.dto.SetmealPageQueryDTO;
 import com.sky.entity.Dish;
 import com.sky.entity.Setmeal;
 import com.sky.entity.SetmealDish;
+import com.sky.enumeration.MenuItemType;
 import com.sky.exception.DeletionNotAllowedException;
 import com.sky.exception.SetmealEnableFailedException;
 import com.sky.mapper.DishMapper;
 import com.sky.mapper.SetmealDishMapper;
 import com.sky.mapper.SetmealMapper;
+import com.sky.metrics.CacheMetrics;
 import com.sky.result.PageResult;
 import com.sky.service.SetmealService;
+import com.sky.service.MenuVersionService;
+import com.sky.service.WorkspaceService;
 import com.sky.vo.DishItemVO;
+import com.sky.vo.SetmealDetailVO;
 import com.sky.vo.SetmealVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -93,6 +109,47 @@ public class SetmealServiceImpl implements SetmealService {
     private SetmealDishMapper setmealDishMapper;
     @Autowired
     private DishMapper dishMapper;
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private MenuVersionService menuVersionService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    /**
+     * 事务提交后删除分类下的套餐缓存（套餐列表和套餐详情）
+     * @param categoryIds
+     */
+    private void evictSetmealCacheAfterCommit(Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) return;
+        Set<Long> distinctIds = new HashSet<>(categoryIds);
+        // 事务提交后再删缓存，避免数据库回滚但缓存已删
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictSetmealCache(distinctIds);
+                }
+            });
+        } else {
+            evictSetmealCache(distinctIds);
+        }
+    }
+
+    private void evictSetmealCache(Set<Long> categoryIds) {
+        for (String cacheName : new String[]{CacheConstant.SETMEAL_CACHE, CacheConstant.SETMEAL_DETAIL_CACHE}) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) continue;
+            for (Long categoryId : categoryIds) {
+                cache.evict(categoryId);
+                cacheMetrics.evicted(cacheName, 1);
+            }
+        }
+    }
+
     /**
      * 新增套餐
      * @param setmealDTO
@@ -118,6 +175,9 @@ public class SetmealServiceImpl implements SetmealService {
         });
         // 2. 拿到套餐和菜品对应表插入套餐菜品表
         setmealDishMapper.saveWithDish(setmealDishes);
+        workspaceService.onMenuChanged();
+        evictSetmealCacheAfterCommit(Collections.singleton(setmealDTO.getCategoryId()));
+        menuVersionService.bumpAfterCommit(MenuItemType.SETMEAL, Collections.singleton(setmealId));
     }
 
     /**
@@ -162,6 +222,8 @@ public class SetmealServiceImpl implements SetmealService {
     @Override
     @Transactional
     public void update(SetmealDTO setmealDTO) {
+        // 修改前的分类，分类变更时新旧分类的缓存都需要删除
+        Setmeal original = setmealMapper.getById(setmealDTO.getId());
         // 1. 更新套餐基本信息
         Setmeal setmeal = new Setmeal();
         BeanUtils.copyProperties(setmealDTO,setmeal);
@@ -177,6 +239,16 @@ public class SetmealServiceImpl implements SetmealService {
         });
         // 重新插入套餐对应菜品信息
         setmealDishMapper.saveWithDish(setmealDishes);
+
+        List<Long> categoryIds = new ArrayList<>();
+        if (original != null) {
+            categoryIds.add(original.getCategoryId());
+        }
+        if (setmealDTO.getCategoryId() != null) {
+            categoryIds.add(setmealDTO.getCategoryId());
+        }
+        evictSetmealCacheAfterCommit(categoryIds);
+        menuVersionService.bumpAfterCommit(MenuItemType.SETMEAL, Collections.singleton(setmealId));
     }
 
     /**
@@ -203,6 +275,13 @@ public class SetmealServiceImpl implements SetmealService {
                 .status(status)
                 .build();
         setmealMapper.update(setmeal);
+        workspaceService.onMenuChanged();
+
+        Setmeal updated = setmealMapper.getById(id);
+        if (updated != null) {
+            evictSetmealCacheAfterCommit(Collections.singleton(updated.getCategoryId()));
+        }
+        menuVersionService.bumpAfterCommit(MenuItemType.SETMEAL, Collections.singleton(id));
     }
 
     /**
@@ -212,35 +291,58 @@ public class SetmealServiceImpl implements SetmealService {
      **/
     @Override
     public void deleteByIds(List<Long> ids) {
+        List<Long> categoryIds = new ArrayList<>();
         ids.forEach(setmealId -> {
             Setmeal setmeal = setmealMapper.getById(setmealId);
             // 起售中的套餐无法删除
             if (StatusConstant.ENABLE.equals(setmeal.getStatus()))
                 throw new DeletionNotAllowedException(MessageConstant.SETMEAL_ON_SALE);
             else {
+                categoryIds.add(setmeal.getCategoryId());
                 // 删除套餐信息
                 setmealMapper.deleteById(setmealId);
                 // 删除套菜对应菜品信息
                 setmealDishMapper.deleteBySetmealId(setmealId);
             }
         });
+        workspaceService.onMenuChanged();
+        evictSetmealCacheAfterCommit(categoryIds);
+        menuVersionService.bumpAfterCommit(MenuItemType.SETMEAL, ids);
     }
 
     /**
      * 小程序：依据categoryId获取套餐列表及其包含的菜品信息
+     * 结果按分类缓存在setmealCache，方法体只在缓存未命中时执行
      * @param categoryId 分类id
      * @return 套餐列表
      */
+    @Cacheable(cacheNames = CacheConstant.SETMEAL_CACHE, key = "#categoryId")
     public List<Setmeal> listSetmealByCategoryId(Long categoryId){
         Setmeal setmealQuery = Setmeal.builder()
                 .categoryId(categoryId)
                 .status(StatusConstant.ENABLE)
                 .build();
 
-        List<Setmeal> setmeals = setmealMapper.listByCategoryId(setmealQuery);
+        List<Setmeal> setmeals = cacheMetrics.recordLoad(CacheConstant.SETMEAL_CACHE, () -> setmealMapper.listByCategoryId(setmealQuery));
+        cacheMetrics.payloadItems(CacheConstant.SETMEAL_CACHE, setmeals.size());
         return setmeals;
         }
 
+    /**
+     * 小程序：依据categoryId获取起售套餐及其包含的菜品
+     * 一次关联查询替代"套餐列表 + 逐个套餐查询菜品"，结果按分类缓存在setmealDetailCache
+     * @param categoryId 分类id
+     * @return 套餐及菜品列表
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConstant.SETMEAL_DETAIL_CACHE, key = "#categoryId")
+    public List<SetmealDetailVO> listSetmealDetailByCategoryId(Long categoryId) {
+        List<SetmealDetailVO> setmealDetails = cacheMetrics.recordLoad(CacheConstant.SETMEAL_DETAIL_CACHE,
+                () -> setmealMapper.listDetailByCategoryId(categoryId, StatusConstant.ENABLE));
+        cacheMetrics.payloadItems(CacheConstant.SETMEAL_DETAIL_CACHE, setmealDetails.size());
+        return setmealDetails;
+    }
+
     /**
      * 小程序端根据分类id查询套餐
      *
@@ -9,8 +9,10 @@ import com.sky.entity.User;
 import com.sky.exception.LoginFailedException;
 import com.sky.exception.WeChatLoginException;
 import com.sky.mapper.UserMapper;
+import com.sky.mapper.UserSignupDailyMapper;
 import com.sky.properties.WeChatProperties;
 import com.sky.service.UserService;
+import com.sky.service.WorkspaceService;
 
 import com.sky.utils.HttpClientUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +33,12 @@ public class UserServiceImpl implements  UserService{
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UserSignupDailyMapper userSignupDailyMapper;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
     /**
      * 小程序用户登录
      * @param userLoginDTO
@@ -65,6 +73,8 @@ public class UserServiceImpl implements  UserService{
                     .build();
             // TODO 可以完善新用户的其他信息，比如昵称、头像等
             userMapper.insert(newUser);
+            incrementSignupDaily(newUser.getCreateTime());
+            workspaceService.onUserRegistered(newUser.getCreateTime());
 
             return newUser;
         }
@@ -72,6 +82,19 @@ public class UserServiceImpl implements  UserService{
 
     }
 
+    /**
+     * 每日新增用户加一
+     * 计数失败不影响登录，由每日回填任务修正
+     * @param createTime 注册时间
+     */
+    private void incrementSignupDaily(LocalDateTime createTime) {
+        try {
+            userSignupDailyMapper.increment(createTime.toLocalDate());
+        } catch (Exception e) {
+            log.warn("每日新增用户计数失败，等待回填修正，err：{}", e.getMessage());
+        }
+    }
+
     /**
      * 根据code获取用户的微信openid
      * @param code
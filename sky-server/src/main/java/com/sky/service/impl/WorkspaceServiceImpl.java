@@ -0,0 +1,507 @@
+package com.sky.service.impl;
+
+import com.sky.constant.RedisKeysConstant;
+import com.sky.constant.StatusConstant;
+import com.sky.dto.OrderStatusCountDTO;
+import com.sky.entity.Orders;
+import com.sky.entity.TurnoverDaily;
+import com.sky.mapper.DishMapper;
+import com.sky.mapper.OrderMapper;
+import com.sky.mapper.SetmealMapper;
+import com.sky.mapper.TurnoverDailyMapper;
+import com.sky.mapper.UserMapper;
+import com.sky.service.WorkspaceService;
+import com.sky.vo.BusinessDataVO;
+import com.sky.vo.DishOverViewVO;
+import com.sky.vo.OrderOverViewVO;
+import com.sky.vo.SetmealOverViewVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 工作台数据
+ * <pre>
+ * - 本节点的订单、用户事件按记录时间累加到100毫秒一片的LongAdder增量中，写路径无锁无IO；
+ *   每片属于记录时的日期，跨天后的事件不会写入前一天
+ * - 定时flush：已结束的分片按日期 HINCRBY 到Redis当日HASH，再读回多节点汇总的快照
+ * - 读取工作台 = 快照 + 本节点未flush的增量，O(1)，不查询MySQL
+ * - 定时reconcile：以MySQL为准重写Redis中的计数，修正漏记或重复。对账与各节点的增量以同一分片边界为截止点：
+ *   先在HASH中发布下一代次（截止分片），截止时间过后再查询MySQL，最后写入计数并切换代次；
+ *   截止前的增量已包含在MySQL计数中，flush时丢弃，截止后的增量写入新代次的字段，不会重复累加
+ * - HASH字段：计数字段为对账基数，字段@代次为该代次的增量，快照 = 基数 + 当前代次增量
+ * - 菜单总览变化很少，在菜品、套餐写操作提交后交给cacheRebuildExecutor按状态重新统计
+ * </pre>
+ */
+@Service
+@Slf4j
+public class WorkspaceServiceImpl implements WorkspaceService {
+
+    private static final String ALL_ORDERS = "allOrders";
+    private static final String WAITING_ORDERS = "waitingOrders";
+    private static final String DELIVERED_ORDERS = "deliveredOrders";
+    private static final String DELIVERING_ORDERS = "deliveringOrders";
+    private static final String COMPLETED_ORDERS = "completedOrders";
+    private static final String CANCELLED_ORDERS = "cancelledOrders";
+    private static final String TURNOVER_CENTS = "turnoverCents";
+    private static final String NEW_USERS = "newUsers";
+    private static final String[] TODAY_FIELDS = {ALL_ORDERS, WAITING_ORDERS, DELIVERED_ORDERS, DELIVERING_ORDERS,
+            COMPLETED_ORDERS, CANCELLED_ORDERS, TURNOVER_CENTS, NEW_USERS};
+
+    private static final String DISH_SOLD = "dishSold";
+    private static final String DISH_DISCONTINUED = "dishDiscontinued";
+    private static final String SETMEAL_SOLD = "setmealSold";
+    private static final String SETMEAL_DISCONTINUED = "setmealDiscontinued";
+
+    // 代次即对账截止的分片序号；对账发布下一代次后，截止分片之后的增量写入下一代次
+    private static final String GENERATION = "generation";
+    private static final String NEXT_GENERATION = "nextGeneration";
+    private static final String GENERATION_SEPARATOR = "@";
+    private static final long SLICE_MILLIS = 100;
+
+    // 当日HASH保留2天，跨天后自然过期
+    private static final long TODAY_KEY_TTL_DAYS = 2;
+    private static final long RECONCILE_LOCK_SECONDS = 60;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private TurnoverDailyMapper turnoverDailyMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private DishMapper dishMapper;
+
+    @Autowired
+    private SetmealMapper setmealMapper;
+
+    @Autowired
+    @Qualifier("cacheRebuildExecutor")
+    private Executor cacheRebuildExecutor;
+
+    // 本节点尚未写入Redis的增量，key为分片序号（记录时间 / SLICE_MILLIS）
+    private final ConcurrentSkipListMap<Long, DeltaSlice> slices = new ConcurrentSkipListMap<>();
+
+    // 多节点汇总后的快照
+    private volatile Map<String, Long> todaySnapshot = Collections.emptyMap();
+    private volatile LocalDate snapshotDate;
+    private volatile long snapshotGeneration;
+    private volatile Map<String, Long> menuSnapshot = Collections.emptyMap();
+
+    Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * 今日运营数据
+     * @return com.sky.vo.BusinessDataVO
+     */
+    @Override
+    public BusinessDataVO getBusinessData() {
+        long allOrders = today(ALL_ORDERS);
+        long validOrders = today(COMPLETED_ORDERS);
+        double turnover = today(TURNOVER_CENTS) / 100.0;
+        return BusinessDataVO.builder()
+                .turnover(turnover)
+                .validOrderCount((int) validOrders)
+                .orderCompletionRate(allOrders == 0 ? 0.0 : (double) validOrders / allOrders)
+                .unitPrice(validOrders == 0 ? 0.0 : turnover / validOrders)
+                .newUsers((int) today(NEW_USERS))
+                .build();
+    }
+
+    /**
+     * 今日订单概览
+     * @return com.sky.vo.OrderOverViewVO
+     */
+    @Override
+    public OrderOverViewVO getOrderOverView() {
+        return OrderOverViewVO.builder()
+                .waitingOrders((int) today(WAITING_ORDERS))
+                .deliveredOrders((int) today(DELIVERED_ORDERS))
+                .completedOrders((int) today(COMPLETED_ORDERS))
+                .cancelledOrders((int) today(CANCELLED_ORDERS))
+                .allOrders((int) today(ALL_ORDERS))
+                .build();
+    }
+
+    /**
+     * 菜品总览
+     * @return com.sky.vo.DishOverViewVO
+     */
+    @Override
+    public DishOverViewVO getDishOverView() {
+        Map<String, Long> menu = menuSnapshot;
+        return DishOverViewVO.builder()
+                .sold(menu.getOrDefault(DISH_SOLD, 0L).intValue())
+                .discontinued(menu.getOrDefault(DISH_DISCONTINUED, 0L).intValue())
+                .build();
+    }
+
+    /**
+     * 套餐总览
+     * @return com.sky.vo.SetmealOverViewVO
+     */
+    @Override
+    public SetmealOverViewVO getSetmealOverView() {
+        Map<String, Long> menu = menuSnapshot;
+        return SetmealOverViewVO.builder()
+                .sold(menu.getOrDefault(SETMEAL_SOLD, 0L).intValue())
+                .discontinued(menu.getOrDefault(SETMEAL_DISCONTINUED, 0L).intValue())
+                .build();
+    }
+
+    /**
+     * 订单完成，仅统计今日下单的订单
+     * @param orders
+     */
+    @Override
+    public void onOrderCompleted(Orders orders) {
+        if (orders.getOrderTime() == null || !isToday(orders.getOrderTime())) {
+            return;
+        }
+        DeltaSlice slice = currentSlice();
+        slice.add(DELIVERING_ORDERS, -1);
+        slice.add(COMPLETED_ORDERS, 1);
+        if (orders.getAmount() != null) {
+            slice.add(TURNOVER_CENTS, orders.getAmount().movePointRight(2).longValue());
+        }
+    }
+
+    /**
+     * 新用户注册
+     * @param createTime
+     */
+    @Override
+    public void onUserRegistered(LocalDateTime createTime) {
+        if (createTime != null && isToday(createTime)) {
+            currentSlice().add(NEW_USERS, 1);
+        }
+    }
+
+    /**
+     * 菜单变化后重新统计起售、停售数量
+     */
+    @Override
+    public void onMenuChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitMenuOverviewRefresh();
+                }
+            });
+        } else {
+            submitMenuOverviewRefresh();
+        }
+    }
+
+    /**
+     * 异步重新统计菜单总览；线程池已满时放弃本次，排队中的统计任务执行时会读到本次变更
+     */
+    private void submitMenuOverviewRefresh() {
+        try {
+            cacheRebuildExecutor.execute(() -> {
+                try {
+                    refreshMenuOverview();
+                } catch (Exception e) {
+                    log.error("菜单总览重新统计失败", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("缓存重建线程池已满，跳过本次菜单总览统计");
+        }
+    }
+
+    /**
+     * 已结束的分片按日期写入Redis并拉取汇总快照
+     * <pre>
+     * - 只写入结束时间早于本次flush开始的分片，对账在此之后发布的截止分片一定晚于这些分片
+     * - 截止分片之后的增量写入下一代次，当前代次与截止分片之间的写入当前代次，更早的已包含在对账计数中，丢弃
+     * - 每个字段写入成功后才从分片中扣除，Redis写入失败时未写入的增量留在分片中，下一轮flush重试
+     * </pre>
+     */
+    @Override
+    public synchronized void flush() {
+        // 留一片余量，刚取到分片的写线程在分片结束后才累加也不会遗漏
+        long closedBefore = clock.millis() / SLICE_MILLIS - 1;
+        Map<LocalDate, List<DeltaSlice>> closedByDate = new TreeMap<>();
+        for (DeltaSlice slice : slices.headMap(closedBefore).values()) {
+            closedByDate.computeIfAbsent(slice.date, date -> new ArrayList<>()).add(slice);
+        }
+        HashOperations<String, String, String> hash = stringRedisTemplate.opsForHash();
+        for (Map.Entry<LocalDate, List<DeltaSlice>> entry : closedByDate.entrySet()) {
+            flushDate(hash, keyOfDate(entry.getKey()), entry.getValue());
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        Map<String, String> entries = hash.entries(keyOfDate(today));
+        long generation = parseLong(entries.get(GENERATION));
+        Map<String, Long> snapshot = new HashMap<>();
+        for (String field : TODAY_FIELDS) {
+            snapshot.put(field, parseLong(entries.get(field))
+                    + parseLong(entries.get(field + GENERATION_SEPARATOR + generation)));
+        }
+        todaySnapshot = snapshot;
+        snapshotGeneration = generation;
+        snapshotDate = today;
+        menuSnapshot = toLongMap(hash.entries(RedisKeysConstant.WORKSPACE_MENU_KEY));
+    }
+
+    private void flushDate(HashOperations<String, String, String> hash, String key, List<DeltaSlice> dateSlices) {
+        List<String> generations = hash.multiGet(key, Arrays.asList(GENERATION, NEXT_GENERATION));
+        long generation = parseLong(generations.get(0));
+        long nextGeneration = Math.max(generation, parseLong(generations.get(1)));
+
+        Map<Long, List<DeltaSlice>> byGeneration = new TreeMap<>();
+        for (DeltaSlice slice : dateSlices) {
+            if (slice.index >= nextGeneration) {
+                byGeneration.computeIfAbsent(nextGeneration, g -> new ArrayList<>()).add(slice);
+            } else if (slice.index >= generation) {
+                byGeneration.computeIfAbsent(generation, g -> new ArrayList<>()).add(slice);
+            } else {
+                slices.remove(slice.index, slice);
+            }
+        }
+        boolean written = false;
+        for (Map.Entry<Long, List<DeltaSlice>> entry : byGeneration.entrySet()) {
+            for (String field : TODAY_FIELDS) {
+                long[] values = new long[entry.getValue().size()];
+                long sum = 0;
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = entry.getValue().get(i).sum(field);
+                    sum += values[i];
+                }
+                if (sum != 0) {
+                    hash.increment(key, field + GENERATION_SEPARATOR + entry.getKey(), sum);
+                    written = true;
+                }
+                for (int i = 0; i < values.length; i++) {
+                    entry.getValue().get(i).add(field, -values[i]);
+                }
+            }
+            for (DeltaSlice slice : entry.getValue()) {
+                if (slice.isEmpty()) {
+                    slices.remove(slice.index, slice);
+                }
+            }
+        }
+        if (written) {
+            stringRedisTemplate.expire(key, TODAY_KEY_TTL_DAYS, TimeUnit.DAYS);
+        }
+    }
+
+    /**
+     * 以MySQL为准校正计数，多节点下通过锁保证同一时间只有一个节点执行
+     * <pre>
+     * - 先发布下一代次（下一个分片边界），等边界过后再查询MySQL：截止前记录的增量已提交，包含在查询结果中
+     * - 写入计数并切换代次，旧代次的增量字段随之失效
+     * - 对账中途失败时代次不切换，下一代次的增量暂不计入快照，下一次对账后恢复
+     * </pre>
+     */
+    @Override
+    public void reconcile() {
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(
+                RedisKeysConstant.WORKSPACE_RECONCILE_LOCK_KEY, "1", RECONCILE_LOCK_SECONDS, TimeUnit.SECONDS);
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        LocalDate today = LocalDate.now(clock);
+        LocalDateTime begin = today.atStartOfDay();
+        LocalDateTime end = today.plusDays(1).atStartOfDay();
+        String key = keyOfDate(today);
+        HashOperations<String, String, String> hash = stringRedisTemplate.opsForHash();
+
+        long previousGeneration = parseLong(hash.get(key, GENERATION));
+        long cutoff = clock.millis() / SLICE_MILLIS + 1;
+        hash.put(key, NEXT_GENERATION, String.valueOf(cutoff));
+        long waitMillis = cutoff * SLICE_MILLIS - clock.millis();
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        Map<String, String> values = new HashMap<>();
+        for (String field : TODAY_FIELDS) {
+            values.put(field, "0");
+        }
+        long allOrders = 0;
+        List<OrderStatusCountDTO> statusCounts = orderMapper.countGroupByStatus(begin, end);
+        for (OrderStatusCountDTO statusCount : statusCounts) {
+            allOrders += statusCount.getOrderCount();
+            String field = fieldOfStatus(statusCount.getStatus());
+            if (field != null) {
+                values.put(field, String.valueOf(statusCount.getOrderCount()));
+            }
+        }
+        values.put(ALL_ORDERS, String.valueOf(allOrders));
+
+        BigDecimal turnover = BigDecimal.ZERO;
+        List<TurnoverDaily> rollups = turnoverDailyMapper.listByDateRange(today, today);
+        if (!rollups.isEmpty()) {
+            turnover = rollups.get(0).getTurnover();
+        }
+        values.put(TURNOVER_CENTS, String.valueOf(turnover.movePointRight(2).longValue()));
+        values.put(NEW_USERS, String.valueOf(userMapper.countByCreateTime(begin, end)));
+        values.put(GENERATION, String.valueOf(cutoff));
+
+        hash.putAll(key, values);
+        if (previousGeneration != cutoff) {
+            hash.delete(key, Arrays.stream(TODAY_FIELDS)
+                    .map(field -> field + GENERATION_SEPARATOR + previousGeneration)
+                    .toArray());
+        }
+        stringRedisTemplate.expire(key, TODAY_KEY_TTL_DAYS, TimeUnit.DAYS);
+
+        refreshMenuOverview();
+        log.info("工作台计数对账完成：{}", values);
+    }
+
+    /**
+     * 按状态统计菜品、套餐数量写入Redis
+     */
+    private void refreshMenuOverview() {
+        Map<String, String> menu = new HashMap<>();
+        menu.put(DISH_SOLD, String.valueOf(dishMapper.countByStatus(StatusConstant.ENABLE)));
+        menu.put(DISH_DISCONTINUED, String.valueOf(dishMapper.countByStatus(StatusConstant.DISABLE)));
+        menu.put(SETMEAL_SOLD, String.valueOf(countSetmealByStatus(StatusConstant.ENABLE)));
+        menu.put(SETMEAL_DISCONTINUED, String.valueOf(countSetmealByStatus(StatusConstant.DISABLE)));
+        stringRedisTemplate.opsForHash().putAll(RedisKeysConstant.WORKSPACE_MENU_KEY, menu);
+
+        Map<String, Long> snapshot = new HashMap<>();
+        menu.forEach((field, value) -> snapshot.put(field, Long.valueOf(value)));
+        menuSnapshot = snapshot;
+    }
+
+    private Integer countSetmealByStatus(Integer status) {
+        Map<String, Integer> paramMap = new HashMap<>();
+        paramMap.put("status", status);
+        return setmealMapper.getCount(paramMap);
+    }
+
+    /**
+     * 今日某项计数 = 汇总快照 + 本节点未flush的增量（早于快照代次的增量已包含在快照中）
+     */
+    private long today(String field) {
+        LocalDate today = LocalDate.now(clock);
+        boolean snapshotIsToday = today.equals(snapshotDate);
+        long base = snapshotIsToday ? todaySnapshot.getOrDefault(field, 0L) : 0L;
+        long from = snapshotIsToday ? snapshotGeneration : 0L;
+        long pending = 0;
+        for (DeltaSlice slice : slices.tailMap(from).values()) {
+            if (today.equals(slice.date)) {
+                pending += slice.sum(field);
+            }
+        }
+        return base + pending;
+    }
+
+    private DeltaSlice currentSlice() {
+        long index = clock.millis() / SLICE_MILLIS;
+        DeltaSlice slice = slices.get(index);
+        if (slice == null) {
+            LocalDate date = Instant.ofEpochMilli(index * SLICE_MILLIS).atZone(clock.getZone()).toLocalDate();
+            slice = slices.computeIfAbsent(index, i -> new DeltaSlice(i, date));
+        }
+        return slice;
+    }
+
+    private boolean isToday(LocalDateTime time) {
+        return time.toLocalDate().equals(LocalDate.now(clock));
+    }
+
+    private String fieldOfStatus(Integer status) {
+        if (Objects.equals(status, Orders.TO_BE_CONFIRMED)) {
+            return WAITING_ORDERS;
+        }
+        if (Objects.equals(status, Orders.CONFIRMED)) {
+            return DELIVERED_ORDERS;
+        }
+        if (Objects.equals(status, Orders.DELIVERY_IN_PROGRESS)) {
+            return DELIVERING_ORDERS;
+        }
+        if (Objects.equals(status, Orders.COMPLETED)) {
+            return COMPLETED_ORDERS;
+        }
+        if (Objects.equals(status, Orders.CANCELLED)) {
+            return CANCELLED_ORDERS;
+        }
+        return null;
+    }
+
+    private String keyOfDate(LocalDate date) {
+        return RedisKeysConstant.WORKSPACE_TODAY_KEY + date;
+    }
+
+    private static long parseLong(String value) {
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    private Map<String, Long> toLongMap(Map<String, String> entries) {
+        Map<String, Long> result = new HashMap<>();
+        entries.forEach((field, value) -> result.put(field, Long.valueOf(value)));
+        return result;
+    }
+
+    /**
+     * 一个分片内各字段的增量
+     */
+    private static class DeltaSlice {
+
+        private final long index;
+        private final LocalDate date;
+        private final Map<String, LongAdder> adders = new HashMap<>();
+
+        DeltaSlice(long index, LocalDate date) {
+            this.index = index;
+            this.date = date;
+            for (String field : TODAY_FIELDS) {
+                adders.put(field, new LongAdder());
+            }
+        }
+
+        void add(String field, long value) {
+            adders.get(field).add(value);
+        }
+
+        long sum(String field) {
+            return adders.get(field).sum();
+        }
+
+        boolean isEmpty() {
+            return adders.values().stream().allMatch(adder -> adder.sum() == 0);
+        }
+    }
+}
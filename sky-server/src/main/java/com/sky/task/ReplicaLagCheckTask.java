@@ -0,0 +1,31 @@
+package com.sky.task;
+
+import com.sky.datasource.ReadWriteRoutingDataSource;
+import com.sky.properties.ReplicaDataSourceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 从库复制延迟检测定时任务
+ */
+@Component
+@ConditionalOnProperty(prefix = "sky.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaLagCheckTask {
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private ReplicaDataSourceProperties replicaDataSourceProperties;
+
+    /**
+     * 按配置间隔检测从库延迟，超限的从库暂停使用，恢复后重新加入
+     */
+    @Scheduled(fixedDelayString = "${sky.datasource.replica.lag-check-interval:5000}")
+    public void check() {
+        readWriteRoutingDataSource.checkReplicas(replicaDataSourceProperties.getMaxLagSeconds(),
+                replicaDataSourceProperties.isLagCheckEnabled());
+    }
+}
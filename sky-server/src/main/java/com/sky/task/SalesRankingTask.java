@@ -0,0 +1,31 @@
+package com.sky.task;
+
+import com.sky.service.SalesRankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 销量排行回填任务
+ */
+@Component
+@Slf4j
+public class SalesRankingTask {
+
+    @Autowired
+    private SalesRankingService salesRankingService;
+
+    /**
+     * 启动时回填一次历史销量排行，已回填过时直接跳过
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            salesRankingService.backfillIfAbsent();
+        } catch (Exception e) {
+            log.warn("销量排行回填失败，err：{}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.sky.task;
+
+import com.sky.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 每日新增用户回填定时任务
+ */
+@Component
+@Slf4j
+public class UserSignupBackfillTask {
+
+    @Autowired
+    private ReportService reportService;
+
+    /**
+     * 每天凌晨1点用user表重算前一天的新增用户，修正注册时计数失败造成的偏差
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void backfillYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            reportService.backfillUserSignups(yesterday, yesterday);
+        } catch (Exception e) {
+            log.warn("每日新增用户回填失败，日期：{}，err：{}", yesterday, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sky.task;
+
+import com.sky.service.WorkspaceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作台计数定时任务
+ */
+@Component
+@Slf4j
+public class WorkspaceCounterTask {
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    /**
+     * 启动时先对账一次，保证快照不为空
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            workspaceService.reconcile();
+            workspaceService.flush();
+        } catch (Exception e) {
+            log.warn("工作台计数初始化失败，err：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每2秒将本节点增量写入Redis并刷新汇总快照
+     */
+    @Scheduled(fixedDelay = 2000)
+    public void flush() {
+        try {
+            workspaceService.flush();
+        } catch (Exception e) {
+            log.warn("工作台计数flush失败，err：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 每5分钟与MySQL对账
+     */
+    @Scheduled(fixedDelay = 5 * 60 * 1000, initialDelay = 5 * 60 * 1000)
+    public void reconcile() {
+        try {
+            workspaceService.reconcile();
+        } catch (Exception e) {
+            log.warn("工作台计数对账失败，err：{}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.sky.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 单个管理端会话的发送队列
+ * <pre>
+ * - 有界：待发送消息超过容量时丢弃最早的一条，慢客户端不会拖住广播线程
+ * - 合并：同一合并key（消息类型+订单id）在未发出前只保留最新内容，位置不变
+ * - 串行：同一会话同时只有一个线程在发送，WebSocketSession本身不支持并发写
+ * - 推送线程池已满时按RETRY_DELAY_MILLIS延迟重试，没有新消息入队时积压的消息也会发出
+ * </pre>
+ */
+@Slf4j
+class AdminSessionSender {
+
+    private static final long RETRY_DELAY_MILLIS = 200;
+
+    private final WebSocketSession session;
+
+    private final Executor executor;
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private final int capacity;
+
+    private final LinkedHashMap<String, String> pending = new LinkedHashMap<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    AdminSessionSender(WebSocketSession session, Executor executor, ScheduledExecutorService retryScheduler, int capacity) {
+        this.session = session;
+        this.executor = executor;
+        this.retryScheduler = retryScheduler;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 入队一条消息，立即返回
+     * @param coalesceKey 合并key
+     * @param payload 消息内容
+     */
+    void offer(String coalesceKey, String payload) {
+        synchronized (pending) {
+            if (!pending.containsKey(coalesceKey) && pending.size() >= capacity) {
+                Iterator<String> eldest = pending.keySet().iterator();
+                String dropped = eldest.next();
+                eldest.remove();
+                log.warn("WebSocket会话发送队列已满，丢弃最早消息，sessionId：{}，key：{}", session.getId(), dropped);
+            }
+            pending.put(coalesceKey, payload);
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            submitDrain();
+        }
+    }
+
+    /**
+     * 提交发送任务，调用前已持有draining标记
+     */
+    private void submitDrain() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 推送线程池已满：消息留在本会话队列中，保持draining标记并延迟重试，期间入队的消息不再重复调度
+            log.warn("WebSocket推送线程池已满，{}ms后重试，sessionId：{}，待发送：{}",
+                    RETRY_DELAY_MILLIS, session.getId(), pendingSize());
+            scheduleRetry();
+        }
+    }
+
+    private void scheduleRetry() {
+        try {
+            retryScheduler.schedule(() -> {
+                if (session.isOpen()) {
+                    submitDrain();
+                } else {
+                    draining.set(false);
+                }
+            }, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 应用关闭中
+            draining.set(false);
+        }
+    }
+
+    private int pendingSize() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (session.isOpen()) {
+                String payload;
+                synchronized (pending) {
+                    Iterator<Map.Entry<String, String>> it = pending.entrySet().iterator();
+                    if (!it.hasNext()) {
+                        break;
+                    }
+                    payload = it.next().getValue();
+                    it.remove();
+                }
+                session.sendMessage(new TextMessage(payload));
+            }
+        } catch (IOException e) {
+            log.warn("WebSocket消息发送失败，sessionId：{}，err：{}", session.getId(), e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+        boolean hasPending;
+        synchronized (pending) {
+            hasPending = !pending.isEmpty();
+        }
+        // 发送期间有新消息入队且未被其他线程接手时，重新调度
+        if (hasPending && session.isOpen()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sky.websocket;
+
+import com.sky.constant.JwtClaimsConstant;
+import com.sky.properties.JwtProperties;
+import com.sky.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+/**
+ * WebSocket握手时校验管理端jwt令牌
+ *
+ * 浏览器WebSocket无法自定义请求头，令牌也可通过查询参数token传入
+ */
+@Component
+@Slf4j
+public class AdminTokenHandshakeInterceptor implements HandshakeInterceptor {
+
+    private static final String TOKEN_PARAM = "token";
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return false;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        String token = servletRequest.getHeader(jwtProperties.getAdminTokenName());
+        if (token == null || token.isEmpty()) {
+            token = servletRequest.getParameter(TOKEN_PARAM);
+        }
+        try {
+            Claims claims = JwtUtil.parseJWT(jwtProperties.getAdminSecretKey(), token);
+            attributes.put(JwtClaimsConstant.EMP_ID, Long.valueOf(claims.get(JwtClaimsConstant.EMP_ID).toString()));
+            return true;
+        } catch (Exception ex) {
+            log.warn("管理端WebSocket握手jwt校验失败");
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.sky.websocket;
+
+import com.alibaba.fastjson.JSON;
+import com.sky.vo.OrderPushVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 订阅Redis订单推送频道，将消息转发给本节点的管理端会话
+ *
+ * 每个节点都订阅同一频道，任一节点发布的消息都能到达所有节点上的浏览器
+ */
+@Component
+@Slf4j
+public class OrderPushMessageListener implements MessageListener {
+
+    @Autowired
+    private OrderWebSocketHandler orderWebSocketHandler;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            OrderPushVO push = JSON.parseObject(payload, OrderPushVO.class);
+            orderWebSocketHandler.broadcast(push.getType() + ":" + push.getOrderId(), payload);
+        } catch (Exception e) {
+            log.warn("订单推送消息解析失败，payload：{}，err：{}", payload, e.getMessage());
+        }
+    }
+}
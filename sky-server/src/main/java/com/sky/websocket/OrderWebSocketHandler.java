@@ -0,0 +1,81 @@
+package com.sky.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * 管理端订单推送WebSocket处理器
+ *
+ * 维护本节点上已连接的管理端会话，将客户催单消息广播给所有会话
+ */
+@Component
+@Slf4j
+public class OrderWebSocketHandler extends TextWebSocketHandler implements DisposableBean {
+
+    /**
+     * 每个会话最多积压的待发送消息数
+     */
+    private static final int SESSION_QUEUE_CAPACITY = 64;
+
+    private final Map<String, AdminSessionSender> senders = new ConcurrentHashMap<>();
+
+    @Autowired
+    @Qualifier("notificationExecutor")
+    private Executor notificationExecutor;
+
+    /**
+     * 推送线程池已满时延迟重试发送，只做调度不做发送
+     */
+    private final ScheduledExecutorService retryScheduler =
+            new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("ws-send-retry-"));
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        senders.put(session.getId(), new AdminSessionSender(session, notificationExecutor, retryScheduler, SESSION_QUEUE_CAPACITY));
+        log.info("管理端WebSocket连接建立，sessionId：{}，当前连接数：{}", session.getId(), senders.size());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        senders.remove(session.getId());
+        log.info("管理端WebSocket连接关闭，sessionId：{}，status：{}", session.getId(), status);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        log.warn("管理端WebSocket传输异常，sessionId：{}，err：{}", session.getId(), exception.getMessage());
+        senders.remove(session.getId());
+        if (session.isOpen()) {
+            session.close(CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * 向本节点所有管理端会话广播消息，只入队不阻塞
+     * @param coalesceKey 合并key，相同key未发送的消息只保留最新一条
+     * @param payload 消息内容
+     */
+    public void broadcast(String coalesceKey, String payload) {
+        for (AdminSessionSender sender : senders.values()) {
+            sender.offer(coalesceKey, payload);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- 订单条件搜索的keyset分页索引
+-- 排序键 (order_time, id) 与查询的 ORDER BY 一致，游标条件可直接在索引上定位起点
+ALTER TABLE orders ADD INDEX idx_orders_order_time_id (order_time, id);
+-- 按状态筛选时沿用同一排序，避免 filesort
+ALTER TABLE orders ADD INDEX idx_orders_status_order_time_id (status, order_time, id);
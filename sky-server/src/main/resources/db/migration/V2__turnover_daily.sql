@@ -0,0 +1,19 @@
+-- 营业额日汇总表：订单完成时按下单日期增量累加，报表只需按主键范围扫描
+CREATE TABLE IF NOT EXISTS turnover_daily
+(
+    order_date  DATE           NOT NULL COMMENT '下单日期',
+    turnover    DECIMAL(12, 2) NOT NULL DEFAULT 0 COMMENT '已完成订单营业额',
+    order_count INT            NOT NULL DEFAULT 0 COMMENT '已完成订单数',
+    update_time DATETIME       NULL COMMENT '最后更新时间',
+    PRIMARY KEY (order_date)
+) COMMENT '营业额日汇总';
+
+-- 历史数据回填（仅首次上线执行一次）
+INSERT INTO turnover_daily (order_date, turnover, order_count, update_time)
+SELECT DATE(order_time), SUM(amount), COUNT(*), NOW()
+FROM orders
+WHERE status = 5
+GROUP BY DATE(order_time)
+ON DUPLICATE KEY UPDATE turnover    = VALUES(turnover),
+                        order_count = VALUES(order_count),
+                        update_time = VALUES(update_time);
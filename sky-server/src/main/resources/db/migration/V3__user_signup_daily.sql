@@ -0,0 +1,21 @@
+-- 每日新增用户数：用户注册时增量累加，用户统计报表只读取该表
+CREATE TABLE IF NOT EXISTS user_signup_daily
+(
+    signup_date DATE     NOT NULL COMMENT '注册日期',
+    new_users   INT      NOT NULL DEFAULT 0 COMMENT '新增用户数',
+    update_time DATETIME NULL COMMENT '最后更新时间',
+    PRIMARY KEY (signup_date)
+) COMMENT '每日新增用户';
+
+-- 回填任务按日期分段扫描 user 表
+ALTER TABLE user ADD INDEX idx_user_create_time (create_time);
+
+-- 历史数据回填（仅首次上线执行一次）；之后的漏计由每日回填任务和 /admin/report/userStatistics/backfill 修正
+-- 滚动发布时新节点已在累加今天的计数，取较大值，不让统计之后到达的累加被覆盖掉
+INSERT INTO user_signup_daily (signup_date, new_users, update_time)
+SELECT DATE(create_time), COUNT(*), NOW()
+FROM user
+WHERE create_time IS NOT NULL
+GROUP BY DATE(create_time)
+ON DUPLICATE KEY UPDATE new_users   = GREATEST(new_users, VALUES(new_users)),
+                        update_time = VALUES(update_time);
@@ -0,0 +1,3 @@
+-- 订单统计按 (日期, 状态) 分组计数
+-- (order_time, status) 覆盖索引：按下单时间范围扫描即可完成分组，不回表
+ALTER TABLE orders ADD INDEX idx_orders_order_time_status (order_time, status);
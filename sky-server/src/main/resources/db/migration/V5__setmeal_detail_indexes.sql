@@ -0,0 +1,4 @@
+-- 用户端按分类查询起售套餐及其菜品
+-- 套餐按 (category_id, status) 定位，套餐菜品按 setmeal_id 关联
+ALTER TABLE setmeal ADD INDEX idx_setmeal_category_status (category_id, status);
+ALTER TABLE setmeal_dish ADD INDEX idx_setmeal_dish_setmeal_id (setmeal_id);
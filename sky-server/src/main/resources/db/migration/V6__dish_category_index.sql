@@ -0,0 +1,3 @@
+-- 删除分类前检查是否关联菜品、套餐（EXISTS按category_id定位，命中即返回）
+-- setmeal已有 idx_setmeal_category_status (category_id, status)，最左前缀可直接使用
+ALTER TABLE dish ADD INDEX idx_dish_category_status (category_id, status);
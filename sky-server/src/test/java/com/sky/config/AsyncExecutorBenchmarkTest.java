@@ -0,0 +1,102 @@
+package com.sky.config;
+
+import com.sky.properties.ExecutorProperties;
+import com.sky.utils.VirtualThreadUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * asyncExecutor压测对比：平台线程池与有界的每任务一线程执行器（JDK 21以上为虚拟线程）
+ * <pre>
+ * 默认跳过，手动执行：
+ *   mvn -pl sky-server test -Dtest=AsyncExecutorBenchmarkTest -Dbenchmark=true -Dbenchmark.tasks=20000
+ * - 两种执行器使用同一份sky.executor.async默认配置（最大16个并发、100个等待）
+ * - 每个任务阻塞benchmark.blockMillis（默认20毫秒）模拟JDBC、Redis等I/O，提交方在被拒绝时稍后重试
+ * - 输出吞吐量（任务/秒）、被拒绝次数和测量期间的平台线程峰值
+ * - JDK 21以下没有虚拟线程，第二项以平台线程代替，只能对比有界执行器本身的开销
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AsyncExecutorBenchmarkTest {
+
+    @Test
+    void platformPoolVersusThreadPerTask() throws Exception {
+        int tasks = Integer.getInteger("benchmark.tasks", 20_000);
+        long blockMillis = Long.getLong("benchmark.blockMillis", 20L);
+        ExecutorProperties.Pool pool = new ExecutorProperties().getAsync();
+
+        ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(pool.getCorePoolSize());
+        platform.setMaxPoolSize(pool.getMaxPoolSize());
+        platform.setQueueCapacity(pool.getQueueCapacity());
+        platform.setThreadNamePrefix("bench-platform-");
+        platform.initialize();
+
+        boolean virtual = VirtualThreadUtils.isSupported();
+        ExecutorService threadPerTask = virtual ? VirtualThreadUtils.newThreadPerTaskExecutor("bench-vt-")
+                : Executors.newCachedThreadPool();
+        BoundedThreadPerTaskExecutor bounded = new BoundedThreadPerTaskExecutor("bench", threadPerTask, pool, null);
+
+        try {
+            // 预热
+            run(platform, tasks / 10, blockMillis);
+            run(bounded, tasks / 10, blockMillis);
+            System.out.printf("tasks=%d blockMillis=%d maxConcurrency=%d queueCapacity=%d%n",
+                    tasks, blockMillis, pool.getMaxPoolSize(), pool.getQueueCapacity());
+            report("platform-pool", run(platform, tasks, blockMillis));
+            report(virtual ? "virtual-bounded" : "thread-per-task-bounded(platform)", run(bounded, tasks, blockMillis));
+        } finally {
+            platform.shutdown();
+            bounded.shutdown();
+        }
+    }
+
+    private static void report(String name, long[] result) {
+        System.out.printf("%s throughput=%.0f/s rejected=%d peakPlatformThreads=%d%n",
+                name, result[0] / (result[1] / 1_000_000_000.0), result[2], result[3]);
+    }
+
+    /**
+     * @return {任务数, 耗时纳秒, 被拒绝次数, 平台线程峰值}
+     */
+    private static long[] run(Executor executor, int tasks, long blockMillis) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger rejected = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            while (true) {
+                try {
+                    executor.execute(() -> {
+                        try {
+                            Thread.sleep(blockMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        done.countDown();
+                    });
+                    break;
+                } catch (RejectedExecutionException e) {
+                    rejected.incrementAndGet();
+                    Thread.sleep(1);
+                }
+            }
+        }
+        assertThat(done.await(10, TimeUnit.MINUTES)).isTrue();
+        return new long[]{tasks, System.nanoTime() - start, rejected.get(), threads.getPeakThreadCount()};
+    }
+}
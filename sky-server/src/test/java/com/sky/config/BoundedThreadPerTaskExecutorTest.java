@@ -0,0 +1,123 @@
+package com.sky.config;
+
+import com.sky.properties.ExecutorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 有界每任务一线程执行器：JDK 17下以平台线程代替虚拟线程验证并发与等待上限
+ */
+class BoundedThreadPerTaskExecutorTest {
+
+    private final ExecutorService threadPerTask = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        threadPerTask.shutdownNow();
+    }
+
+    @Test
+    void limitsConcurrencyAndRejectsBeyondQueueCapacity() throws Exception {
+        BoundedThreadPerTaskExecutor executor = executor(2, 3, ExecutorProperties.SheddingPolicy.ABORT);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(5);
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(release);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        waitUntil(() -> executor.getActiveCount() == 2 && executor.getWaitingCount() == 3);
+        assertThat(executor.getRemainingCapacity()).isZero();
+        assertThatThrownBy(() -> executor.execute(() -> { })).isInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+        waitUntil(() -> executor.getCompletedTaskCount() == 5);
+
+        // 名额归还后可以继续提交
+        CountDownLatch again = new CountDownLatch(1);
+        executor.execute(again::countDown);
+        assertThat(again.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void discardPolicyDropsSilently() throws Exception {
+        BoundedThreadPerTaskExecutor executor = executor(1, 0, ExecutorProperties.SheddingPolicy.DISCARD);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> ran = new ArrayList<>();
+
+        executor.execute(() -> await(release));
+        executor.execute(() -> ran.add(1));
+        release.countDown();
+
+        waitUntil(() -> executor.getCompletedTaskCount() == 1);
+        assertThat(ran).isEmpty();
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void discardOldestIsNotSupported() {
+        assertThatThrownBy(() -> executor(1, 1, ExecutorProperties.SheddingPolicy.DISCARD_OLDEST))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void taskDecoratorWrapsEachTask() throws Exception {
+        AtomicInteger decorated = new AtomicInteger();
+        ExecutorProperties.Pool pool = new ExecutorProperties.Pool(1, 1, 1, 60, ExecutorProperties.SheddingPolicy.ABORT);
+        BoundedThreadPerTaskExecutor executor = new BoundedThreadPerTaskExecutor("test", threadPerTask, pool,
+                task -> () -> {
+                    decorated.incrementAndGet();
+                    task.run();
+                });
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(decorated.get()).isEqualTo(1);
+    }
+
+    private BoundedThreadPerTaskExecutor executor(int maxPoolSize, int queueCapacity,
+                                                  ExecutorProperties.SheddingPolicy policy) {
+        ExecutorProperties.Pool pool = new ExecutorProperties.Pool(maxPoolSize, maxPoolSize, queueCapacity, 60, policy);
+        return new BoundedThreadPerTaskExecutor("test", threadPerTask, pool, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
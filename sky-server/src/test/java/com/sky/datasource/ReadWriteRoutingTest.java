@@ -0,0 +1,315 @@
+package com.sky.datasource;
+
+import com.sky.annotation.ReadOnly;
+import com.sky.aspect.ReadOnlyAspect;
+import com.sky.context.ReadOnlyContext;
+import com.sky.mapper.MapperTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读写分离路由：主库、从库各一个H2库，表node中写入库名，查询结果即实际路由到的库
+ * 组装方式与ReadWriteDataSourceConfiguration一致（路由数据源外包LazyConnectionDataSourceProxy）
+ */
+@SpringJUnitConfig(ReadWriteRoutingTest.RoutingConfig.class)
+class ReadWriteRoutingTest {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    @Autowired
+    private RoutingService routingService;
+
+    @Autowired
+    private WriteService writeService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private LagReportingDataSource replica;
+
+    @Autowired
+    private RecordingTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        replica.lagSeconds = "0";
+        routingDataSource.checkReplicas(3, true);
+        transactionManager.readOnlyContextAtBegin.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        assertThat(ReadOnlyContext.isReadOnly()).isFalse();
+    }
+
+    @Test
+    void readOnlyMethodReadsReplica() {
+        assertThat(routingService.readOnly()).isEqualTo(REPLICA);
+    }
+
+    @Test
+    void unannotatedReadUsesPrimary() {
+        assertThat(routingService.plain()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionReadsReplica() {
+        assertThat(routingService.readOnlyTransaction()).isEqualTo(REPLICA);
+    }
+
+    @Test
+    void writeTransactionUsesPrimaryForReadsAndWrites() {
+        assertThat(writeService.writeThenRead()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void readOnlyMethodInsideWriteTransactionUsesPrimary() {
+        assertThat(writeService.writeThenCallReadOnly()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void readOnlyOnWriteTransactionUsesPrimary() {
+        assertThat(routingService.readOnlyWithWriteTransaction()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void readOnlyAspectRunsBeforeTransactionBegins() {
+        assertThat(routingService.readOnlyWithWriteTransaction()).isEqualTo(PRIMARY);
+        assertThat(routingService.readOnlyWithReadOnlyTransaction()).isEqualTo(REPLICA);
+
+        // 两次事务开始时只读上下文都已由ReadOnlyAspect设置
+        assertThat(transactionManager.readOnlyContextAtBegin).containsExactly(true, true);
+    }
+
+    @Test
+    void replicaOverLagFallsBackToPrimaryUntilCaughtUp() {
+        replica.lagSeconds = "10";
+        routingDataSource.checkReplicas(3, true);
+        assertThat(routingService.readOnly()).isEqualTo(PRIMARY);
+        assertThat(routingService.readOnlyTransaction()).isEqualTo(PRIMARY);
+
+        replica.lagSeconds = "3";
+        routingDataSource.checkReplicas(3, true);
+        assertThat(routingService.readOnly()).isEqualTo(REPLICA);
+    }
+
+    @Test
+    void stoppedReplicationFallsBackToPrimary() {
+        replica.lagSeconds = null;
+        routingDataSource.checkReplicas(3, true);
+
+        assertThat(routingService.readOnly()).isEqualTo(PRIMARY);
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableTransactionManagement
+    static class RoutingConfig {
+
+        @Bean
+        DataSource primaryDataSource() throws SQLException {
+            return node(MapperTestSupport.h2("jdbc:h2:mem:routing_primary"), PRIMARY);
+        }
+
+        @Bean
+        LagReportingDataSource replicaDataSource() throws SQLException {
+            return new LagReportingDataSource(node(MapperTestSupport.h2("jdbc:h2:mem:routing_replica"), REPLICA));
+        }
+
+        @Bean
+        ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSource primaryDataSource,
+                                                              LagReportingDataSource replicaDataSource) {
+            return new ReadWriteRoutingDataSource(primaryDataSource,
+                    Collections.singletonMap("replica-0", replicaDataSource));
+        }
+
+        @Bean
+        DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+        }
+
+        @Bean
+        RecordingTransactionManager transactionManager(DataSource dataSource) {
+            return new RecordingTransactionManager(dataSource);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        ReadOnlyAspect readOnlyAspect() {
+            return new ReadOnlyAspect();
+        }
+
+        @Bean
+        RoutingService routingService(JdbcTemplate jdbcTemplate) {
+            return new RoutingService(jdbcTemplate);
+        }
+
+        @Bean
+        WriteService writeService(JdbcTemplate jdbcTemplate, RoutingService routingService) {
+            return new WriteService(jdbcTemplate, routingService);
+        }
+
+        private static DataSource node(DataSource dataSource, String name) throws SQLException {
+            MapperTestSupport.execute(dataSource, "drop table if exists node",
+                    "create table node (name varchar(20))",
+                    "insert into node values ('" + name + "')");
+            return dataSource;
+        }
+    }
+
+    static class RoutingService {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        RoutingService(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        public String plain() {
+            return currentNode();
+        }
+
+        @ReadOnly
+        public String readOnly() {
+            return currentNode();
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnlyTransaction() {
+            return currentNode();
+        }
+
+        @ReadOnly
+        @Transactional
+        public String readOnlyWithWriteTransaction() {
+            return currentNode();
+        }
+
+        @ReadOnly
+        @Transactional(readOnly = true)
+        public String readOnlyWithReadOnlyTransaction() {
+            return currentNode();
+        }
+
+        public String currentNode() {
+            return jdbcTemplate.queryForObject("select name from node limit 1", String.class);
+        }
+    }
+
+    static class WriteService {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final RoutingService routingService;
+
+        WriteService(JdbcTemplate jdbcTemplate, RoutingService routingService) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.routingService = routingService;
+        }
+
+        @Transactional
+        public String writeThenRead() {
+            jdbcTemplate.update("update node set name = name");
+            return routingService.currentNode();
+        }
+
+        @Transactional
+        public String writeThenCallReadOnly() {
+            jdbcTemplate.update("update node set name = name");
+            return routingService.readOnly();
+        }
+    }
+
+    /**
+     * 记录事务开始时是否已处于只读上下文，用于验证ReadOnlyAspect先于事务切面执行
+     */
+    static class RecordingTransactionManager extends DataSourceTransactionManager {
+
+        final List<Boolean> readOnlyContextAtBegin = new ArrayList<>();
+
+        RecordingTransactionManager(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            readOnlyContextAtBegin.add(ReadOnlyContext.isReadOnly());
+            super.doBegin(transaction, definition);
+        }
+    }
+
+    /**
+     * H2不支持SHOW REPLICA STATUS，由该数据源返回设定的复制延迟（null表示复制未运行）
+     */
+    static class LagReportingDataSource extends DelegatingDataSource {
+
+        volatile String lagSeconds = "0";
+
+        LagReportingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if ("createStatement".equals(method.getName()) && (args == null || args.length == 0)) {
+                            return lagStatement((Statement) result);
+                        }
+                        return result;
+                    });
+        }
+
+        private Statement lagStatement(Statement statement) {
+            return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                    (proxy, method, args) -> {
+                        if ("executeQuery".equals(method.getName()) && "SHOW REPLICA STATUS".equals(args[0])) {
+                            String lag = lagSeconds;
+                            return statement.executeQuery("select cast(" + (lag == null ? "null" : lag)
+                                    + " as bigint) as Seconds_Behind_Source");
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.sky.interceptor;
+
+import com.sky.properties.RateLimitProperties;
+import com.sky.ratelimit.TokenBucketRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 限流规则匹配：Spring MVC路由到同一处理器的路径变体都应命中同一规则
+ */
+class RateLimitInterceptorTest {
+
+    private TokenBucketRateLimiter limiter;
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Rule login = new RateLimitProperties.Rule();
+        login.setName("login");
+        login.setPathPatterns(Collections.singletonList("/user/user/login"));
+        login.setKeyType(RateLimitProperties.KeyType.IP);
+        login.setCapacity(10);
+        login.setRefillPerSecond(0.2);
+        properties.setRules(Collections.singletonList(login));
+
+        limiter = mock(TokenBucketRateLimiter.class);
+        when(limiter.tryAcquire(any(), anyString())).thenReturn(false);
+        interceptor = new RateLimitInterceptor();
+        ReflectionTestUtils.setField(interceptor, "rateLimitProperties", properties);
+        ReflectionTestUtils.setField(interceptor, "tokenBucketRateLimiter", limiter);
+        handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/user/user/login", "/user/user/login/", "/user/user/login;x=1",
+            "/user/user/login/;x=1", "/user/user/%6Cogin"})
+    void pathVariantsOfLoginUseTheLoginRule(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(post(uri), response, handler)).isFalse();
+
+        ArgumentCaptor<RateLimitProperties.Rule> rule = ArgumentCaptor.forClass(RateLimitProperties.Rule.class);
+        verify(limiter).tryAcquire(rule.capture(), anyString());
+        assertThat(rule.getValue().getName()).isEqualTo("login");
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void contextPathIsIgnored() throws Exception {
+        MockHttpServletRequest request = post("/api/user/user/login/");
+        request.setContextPath("/api");
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), handler)).isFalse();
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        assertThat(interceptor.preHandle(post("/user/user/logout"), new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(interceptor.preHandle(post("/user/user/login/extra"), new MockHttpServletResponse(), handler)).isTrue();
+
+        verifyNoInteractions(limiter);
+    }
+
+    private static MockHttpServletRequest post(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("203.0.113.7");
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sky.mapper;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Mapper测试工具：H2（MySQL兼容模式）数据源 + 与application.yml相同配置的MyBatis
+ */
+public final class MapperTestSupport {
+
+    private MapperTestSupport() {
+    }
+
+    /**
+     * 创建H2数据源
+     * @param url 如 jdbc:h2:mem:orders
+     * @return javax.sql.DataSource
+     */
+    public static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=LOW;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    /**
+     * 按application.yml中的mybatis配置创建SqlSessionFactory，并加载指定的Mapper XML
+     * @param dataSource 数据源
+     * @param mapperXmls classpath下的Mapper XML，如 mapper/OrderMapper.xml
+     * @return org.apache.ibatis.session.SqlSessionFactory
+     */
+    public static SqlSessionFactory sqlSessionFactory(DataSource dataSource, String... mapperXmls) throws IOException {
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.getTypeAliasRegistry().registerAliases("com.sky.entity");
+        for (String mapperXml : mapperXmls) {
+            try (InputStream inputStream = Resources.getResourceAsStream(mapperXml)) {
+                new XMLMapperBuilder(inputStream, configuration, mapperXml, configuration.getSqlFragments()).parse();
+            }
+        }
+        return new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    /**
+     * 执行DDL或数据准备语句
+     * @param dataSource 数据源
+     * @param sqls SQL语句
+     */
+    public static void execute(DataSource dataSource, String... sqls) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
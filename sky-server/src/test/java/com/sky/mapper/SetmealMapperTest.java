@@ -0,0 +1,81 @@
+package com.sky.mapper;
+
+import com.sky.vo.DishItemVO;
+import com.sky.vo.SetmealDetailVO;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 套餐菜品查询：菜品图片取自dish.img_url，明细行按setmeal_dish.id区分
+ */
+class SetmealMapperTest {
+
+    private SqlSession sqlSession;
+    private SetmealMapper setmealMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = MapperTestSupport.h2("jdbc:h2:mem:setmeal_mapper");
+        MapperTestSupport.execute(dataSource,
+                "drop table if exists setmeal", "drop table if exists setmeal_dish", "drop table if exists dish",
+                "create table setmeal (id bigint primary key, category_id bigint, name varchar(32), price decimal(10, 2), " +
+                        "status int, description varchar(255), image varchar(255))",
+                "create table setmeal_dish (id bigint primary key, setmeal_id bigint, dish_id bigint, name varchar(32), " +
+                        "price decimal(10, 2), copies int)",
+                "create table dish (id bigint primary key, name varchar(32), category_id bigint, price decimal(10, 2), " +
+                        "img_url varchar(255), description varchar(255), status int)",
+                "insert into setmeal values (1, 13, '双人餐', 88, 1, '套餐', 'setmeal.png')",
+                "insert into setmeal values (2, 13, '空套餐', 10, 1, null, 'empty.png')",
+                "insert into dish values (10, '鱼', 20, 48, 'fish.png', '清蒸', 1)",
+                "insert into dish values (11, '米饭', 20, 2, 'rice.png', null, 1)",
+                "insert into setmeal_dish values (100, 1, 10, '鱼', 48, 1)",
+                "insert into setmeal_dish values (101, 1, 11, '米饭', 2, 2)",
+                // 同一菜品两行明细，名称、份数都相同
+                "insert into setmeal values (3, 14, '家庭餐', 120, 1, null, 'family.png')",
+                "insert into setmeal_dish values (102, 3, 11, '米饭', 2, 1)",
+                "insert into setmeal_dish values (103, 3, 11, '米饭', 2, 1)");
+        sqlSession = MapperTestSupport.sqlSessionFactory(dataSource, "mapper/SetmealMapper.xml").openSession(true);
+        setmealMapper = sqlSession.getMapper(SetmealMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+    }
+
+    @Test
+    void listDetailByCategoryIdReadsDishImage() {
+        List<SetmealDetailVO> details = setmealMapper.listDetailByCategoryId(13L, 1);
+
+        assertThat(details).extracting(SetmealDetailVO::getId, SetmealDetailVO::getImage)
+                .containsExactly(tuple(1L, "setmeal.png"), tuple(2L, "empty.png"));
+        assertThat(details.get(0).getDishItems()).extracting(DishItemVO::getName, DishItemVO::getCopies, DishItemVO::getImage)
+                .containsExactly(tuple("鱼", 1, "fish.png"), tuple("米饭", 2, "rice.png"));
+        assertThat(details.get(1).getDishItems()).isEmpty();
+    }
+
+    @Test
+    void duplicateDishLinesAreKept() {
+        List<SetmealDetailVO> details = setmealMapper.listDetailByCategoryId(14L, 1);
+
+        assertThat(details).hasSize(1);
+        assertThat(details.get(0).getDishItems()).extracting(DishItemVO::getName, DishItemVO::getCopies)
+                .containsExactly(tuple("米饭", 1), tuple("米饭", 1));
+    }
+
+    @Test
+    void getDishItemBySetmealIdReadsDishImage() {
+        List<DishItemVO> items = setmealMapper.getDishItemBySetmealId(1L);
+
+        assertThat(items).extracting(DishItemVO::getName, DishItemVO::getImage, DishItemVO::getDescription)
+                .containsExactlyInAnyOrder(tuple("鱼", "fish.png", "清蒸"), tuple("米饭", "rice.png", null));
+    }
+}
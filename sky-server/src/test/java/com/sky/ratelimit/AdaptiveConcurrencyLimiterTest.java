@@ -0,0 +1,104 @@
+package com.sky.ratelimit;
+
+import com.sky.properties.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 自适应并发限制：每轮占满当前上限再以固定耗时全部释放，模拟满负载下数据库延迟的阶跃变化
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void rejectsWhenLimitReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", properties(3));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        limiter.release(0);
+        assertThat(limiter.getInflight()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteady() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", properties(20));
+
+        rounds(limiter, 10, 50);
+
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void limitDropsOnLatencyStepAndRecoversAfterwards() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", properties(20));
+        rounds(limiter, 10, 50);
+        int steady = limiter.getLimit();
+
+        // 数据库变慢：延迟升至5倍，超过容忍倍数，上限应明显下降
+        rounds(limiter, 50, 30);
+        int degraded = limiter.getLimit();
+        assertThat(degraded).isLessThan(steady / 2);
+
+        // 延迟恢复后上限重新增长
+        rounds(limiter, 10, 100);
+        assertThat(limiter.getLimit()).isGreaterThan(degraded * 2);
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+        ConcurrencyLimitProperties.Limiter properties = properties(20);
+        properties.setMinLimit(5);
+        properties.setMaxLimit(30);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", properties);
+
+        rounds(limiter, 10, 200);
+        assertThat(limiter.getLimit()).isEqualTo(30);
+
+        rounds(limiter, 500, 200);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void lowLoadDoesNotRaiseLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", properties(20));
+
+        // 每次只有一个请求在执行，远低于上限的一半
+        for (int i = 0; i < 500; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    private static ConcurrencyLimitProperties.Limiter properties(int initialLimit) {
+        ConcurrencyLimitProperties.Limiter properties = new ConcurrencyLimitProperties.Limiter();
+        properties.setInitialLimit(initialLimit);
+        return properties;
+    }
+
+    /**
+     * 每轮占满当前上限后以相同耗时全部释放
+     */
+    private static void rounds(AdaptiveConcurrencyLimiter limiter, long rttMillis, int count) {
+        long rttNanos = TimeUnit.MILLISECONDS.toNanos(rttMillis);
+        for (int i = 0; i < count; i++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            assertThat(acquired).isEqualTo(limiter.getLimit());
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
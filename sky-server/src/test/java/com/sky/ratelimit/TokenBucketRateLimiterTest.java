@@ -0,0 +1,164 @@
+package com.sky.ratelimit;
+
+import com.sky.properties.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 令牌桶限流：预取数量与本地令牌桶补充
+ */
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private StringRedisTemplate stringRedisTemplate;
+    private RateLimitProperties properties;
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        properties = new RateLimitProperties();
+        properties.setLeaseSize(5);
+        properties.setLeaseTtl(Duration.ofSeconds(1));
+        limiter = new TokenBucketRateLimiter();
+        ReflectionTestUtils.setField(limiter, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(limiter, "rateLimitProperties", properties);
+        ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+        limiter.init();
+    }
+
+    @Test
+    void leaseIsCappedByTokensRefilledWithinLeaseTtl() {
+        // 每5秒1个令牌：1秒有效期内只能补充0.2个，只预取1个
+        assertThat(limiter.leaseSize(rule(10, 0.2))).isEqualTo(1);
+        // 每秒2.5个：向上取整为3
+        assertThat(limiter.leaseSize(rule(10, 2.5))).isEqualTo(3);
+        // 补充足够快时按配置预取，且不超过容量
+        assertThat(limiter.leaseSize(rule(20, 50))).isEqualTo(5);
+        assertThat(limiter.leaseSize(rule(2, 50))).isEqualTo(2);
+
+        properties.setLeaseTtl(Duration.ofMillis(100));
+        assertThat(limiter.leaseSize(rule(20, 20))).isEqualTo(2);
+    }
+
+    @Test
+    void slowRuleRequestsOneTokenFromRedis() {
+        List<Object[]> calls = stubRedisGrantingRequested();
+
+        assertThat(limiter.tryAcquire(rule(10, 0.2), "ip:1.2.3.4")).isTrue();
+
+        assertThat(calls).hasSize(1);
+        // ARGV：容量、每毫秒补充数、申请数
+        assertThat(calls.get(0)[2]).isEqualTo("1");
+    }
+
+    @Test
+    void leasedTokensAreUsedLocallyBeforeCallingRedisAgain() {
+        List<Object[]> calls = stubRedisGrantingRequested();
+        RateLimitProperties.Rule rule = rule(20, 50);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(rule, "user:1")).isTrue();
+        }
+        assertThat(calls).hasSize(1);
+
+        assertThat(limiter.tryAcquire(rule, "user:1")).isTrue();
+        assertThat(calls).hasSize(2);
+    }
+
+    @Test
+    void fallsBackToLocalBucketWhenRedisFails() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        RateLimitProperties.Rule rule = rule(2, 0.001);
+
+        assertThat(limiter.tryAcquire(rule, "ip:1.2.3.4")).isTrue();
+        assertThat(limiter.tryAcquire(rule, "ip:1.2.3.4")).isTrue();
+        assertThat(limiter.tryAcquire(rule, "ip:1.2.3.4")).isFalse();
+        // 之后一段时间内不再访问Redis
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any());
+    }
+
+    @Test
+    void localBucketStartsFullAndRefillsOverTime() {
+        RateLimitProperties.Rule rule = rule(3, 2);
+        long now = 1_000 * SECOND;
+        TokenBucketRateLimiter.LocalBucket bucket = new TokenBucketRateLimiter.LocalBucket(rule.getCapacity(), now);
+
+        assertThat(bucket.takeLocal(rule, now)).isTrue();
+        assertThat(bucket.takeLocal(rule, now)).isTrue();
+        assertThat(bucket.takeLocal(rule, now)).isTrue();
+        assertThat(bucket.takeLocal(rule, now)).isFalse();
+
+        // 每秒2个：0.4秒后不足1个，0.5秒后补满1个
+        assertThat(bucket.takeLocal(rule, now + SECOND * 4 / 10)).isFalse();
+        assertThat(bucket.takeLocal(rule, now + SECOND / 2)).isTrue();
+        assertThat(bucket.takeLocal(rule, now + SECOND / 2)).isFalse();
+    }
+
+    @Test
+    void localBucketAccumulatesFractionalRefill() {
+        // 每5秒1个令牌
+        RateLimitProperties.Rule rule = rule(1, 0.2);
+        long now = 0;
+        TokenBucketRateLimiter.LocalBucket bucket = new TokenBucketRateLimiter.LocalBucket(rule.getCapacity(), now);
+        assertThat(bucket.takeLocal(rule, now)).isTrue();
+
+        // 每秒检查一次，部分补充的令牌累积，第5秒才够1个
+        for (int second = 1; second < 5; second++) {
+            assertThat(bucket.takeLocal(rule, now + second * SECOND)).isFalse();
+        }
+        assertThat(bucket.takeLocal(rule, now + 5 * SECOND)).isTrue();
+    }
+
+    @Test
+    void localBucketRefillIsCappedAtCapacity() {
+        RateLimitProperties.Rule rule = rule(2, 10);
+        long now = 0;
+        TokenBucketRateLimiter.LocalBucket bucket = new TokenBucketRateLimiter.LocalBucket(rule.getCapacity(), now);
+        bucket.takeLocal(rule, now);
+        bucket.takeLocal(rule, now);
+
+        long later = now + 60 * SECOND;
+        assertThat(bucket.takeLocal(rule, later)).isTrue();
+        assertThat(bucket.takeLocal(rule, later)).isTrue();
+        assertThat(bucket.takeLocal(rule, later)).isFalse();
+    }
+
+    private List<Object[]> stubRedisGrantingRequested() {
+        List<Object[]> calls = new ArrayList<>();
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenAnswer(invocation -> {
+            Object[] args = new Object[]{invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)};
+            calls.add(args);
+            return Long.valueOf((String) args[2]);
+        });
+        return calls;
+    }
+
+    private static RateLimitProperties.Rule rule(int capacity, double refillPerSecond) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setName("test");
+        rule.setCapacity(capacity);
+        rule.setRefillPerSecond(refillPerSecond);
+        return rule;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sky.service.impl;
+
+import com.sky.constant.RedisKeysConstant;
+import com.sky.enumeration.MenuItemType;
+import com.sky.properties.SkyCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 菜单变更记录：客户端版本号早于已清理的位置时不能增量同步
+ */
+class MenuVersionServiceImplTest {
+
+    private ValueOperations<String, String> value;
+    private MenuVersionServiceImpl menuVersionService;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        value = mock(ValueOperations.class);
+        ZSetOperations<String, String> zSet = mock(ZSetOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(value);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.rangeByScore(eq(RedisKeysConstant.MENU_CHANGES_KEY), anyDouble(), anyDouble()))
+                .thenReturn(new LinkedHashSet<>(Arrays.asList("DISH:11", "SETMEAL:3")));
+
+        menuVersionService = new MenuVersionServiceImpl();
+        ReflectionTestUtils.setField(menuVersionService, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(menuVersionService, "skyCacheProperties", new SkyCacheProperties());
+    }
+
+    @Test
+    void changesAfterTheFloorAreReturned() {
+        when(value.get(RedisKeysConstant.MENU_CHANGES_FLOOR_KEY)).thenReturn("100");
+
+        Map<MenuItemType, Set<Long>> changes = menuVersionService.getChanges(100, 120);
+
+        assertThat(changes.get(MenuItemType.DISH)).containsExactly(11L);
+        assertThat(changes.get(MenuItemType.SETMEAL)).containsExactly(3L);
+    }
+
+    @Test
+    void sinceBelowTheFloorNeedsFullSync() {
+        when(value.get(RedisKeysConstant.MENU_CHANGES_FLOOR_KEY)).thenReturn("100");
+
+        assertThat(menuVersionService.getChanges(99, 120)).isNull();
+    }
+
+    @Test
+    void nothingTrimmedYet() {
+        assertThat(menuVersionService.getChanges(0, 120)).isNotNull();
+    }
+}
@@ -0,0 +1,61 @@
+package com.sky.service.impl;
+
+import com.sky.constant.MessageConstant;
+import com.sky.exception.OrderBusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 订单分页游标编解码
+ */
+class OrderCursorTest {
+
+    @Test
+    void encodeThenDecodeKeepsPosition() {
+        LocalDateTime orderTime = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+
+        OrderServiceImpl.Cursor cursor = OrderServiceImpl.decodeCursor(OrderServiceImpl.encodeCursor(orderTime, 42L));
+
+        assertThat(cursor.orderTime).isEqualTo(orderTime);
+        assertThat(cursor.id).isEqualTo(42L);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = OrderServiceImpl.encodeCursor(LocalDateTime.of(2024, 5, 1, 0, 0), Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void encodeRejectsNullOrderTime() {
+        assertThatThrownBy(() -> OrderServiceImpl.encodeCursor(null, 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decodeRejectsMalformedCursors() {
+        assertInvalid("not base64 !");
+        assertInvalid(encode("2024-05-01T12:00"));
+        assertInvalid(encode("|42"));
+        assertInvalid(encode("null|42"));
+        assertInvalid(encode("2024-05-01T12:00|abc"));
+        assertInvalid(encode("2024-13-01T12:00|42"));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> OrderServiceImpl.decodeCursor(cursor))
+                .isInstanceOf(OrderBusinessException.class)
+                .hasMessage(MessageConstant.ORDER_CURSOR_INVALID);
+    }
+}
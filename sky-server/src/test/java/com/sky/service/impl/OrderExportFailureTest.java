@@ -0,0 +1,83 @@
+package com.sky.service.impl;
+
+import com.sky.exception.ReportBusinessException;
+import com.sky.mapper.OrderMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 订单明细导出失败：响应未提交时返回业务错误，已提交时中断连接
+ */
+class OrderExportFailureTest {
+
+    private static final LocalDate BEGIN = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 1, 31);
+
+    private ReportServiceImpl reportService;
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        OrderMapper orderMapper = mock(OrderMapper.class);
+        Cursor<?> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(Collections.emptyIterator());
+        when(orderMapper.cursorByOrderTime(any(), any())).thenAnswer(invocation -> cursor);
+        reportService = new ReportServiceImpl();
+        ReflectionTestUtils.setField(reportService, "orderMapper", orderMapper);
+
+        response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new FailingOutputStream());
+    }
+
+    @Test
+    void failureBeforeCommitIsReportedAsBusinessError() {
+        when(response.isCommitted()).thenReturn(false);
+
+        assertThatThrownBy(() -> reportService.exportOrders(BEGIN, END, response))
+                .isInstanceOf(ReportBusinessException.class);
+    }
+
+    @Test
+    void failureAfterCommitAbortsTheDownload() {
+        when(response.isCommitted()).thenReturn(true);
+
+        assertThatThrownBy(() -> reportService.exportOrders(BEGIN, END, response))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    /**
+     * 写出即失败的响应输出流，模拟客户端断开或网络错误
+     */
+    private static class FailingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.sky.service.impl;
+
+import com.sky.entity.Orders;
+import com.sky.mapper.OrderMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 订单明细导出内存占用：100万行在 -Xmx256m 下完成导出
+ * <pre>
+ * - 在独立的surefire执行（export-memory）中运行，JVM参数见sky-server/pom.xml
+ * - Mapper返回按需生成订单的Cursor，响应输出流只计数不保存，堆内只有SXSSF窗口内的行
+ * - 若导出退化为整表读入或整本工作簿驻留内存，该测试会OutOfMemoryError
+ * </pre>
+ */
+@Tag("export-memory")
+class OrderExportMemoryTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_HEAP = 256L * 1024 * 1024;
+
+    @Test
+    void exportsOneMillionRowsWithinSmallHeap() throws Exception {
+        assumeThat(Runtime.getRuntime().maxMemory()).isLessThanOrEqualTo(MAX_HEAP);
+
+        OrderMapper orderMapper = mock(OrderMapper.class);
+        GeneratedCursor cursor = new GeneratedCursor(ROWS);
+        when(orderMapper.cursorByOrderTime(any(), any())).thenReturn(cursor);
+        ReportServiceImpl reportService = new ReportServiceImpl();
+        ReflectionTestUtils.setField(reportService, "orderMapper", orderMapper);
+
+        CountingOutputStream out = new CountingOutputStream();
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(out);
+
+        reportService.exportOrders(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), response);
+
+        assertThat(cursor.getCurrentIndex()).isEqualTo(ROWS - 1);
+        assertThat(cursor.isClosed()).isTrue();
+        assertThat(out.count).isGreaterThan(ROWS);
+    }
+
+    /**
+     * 按需生成订单的游标，不在内存中保留已读取的行
+     */
+    private static class GeneratedCursor implements Cursor<Orders> {
+
+        private final int rows;
+        private int index = -1;
+        private boolean closed;
+
+        GeneratedCursor(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed && index >= 0;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return index == rows - 1;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return index;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Iterator<Orders> iterator() {
+            return new Iterator<Orders>() {
+                @Override
+                public boolean hasNext() {
+                    return index < rows - 1;
+                }
+
+                @Override
+                public Orders next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    index++;
+                    return Orders.builder()
+                            .id((long) index)
+                            .number(String.valueOf(1_700_000_000_000L + index))
+                            .orderTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(index))
+                            .status(index % 6 + 1)
+                            .amount(BigDecimal.valueOf(index % 500 + 10))
+                            .consignee("收货人" + index % 1000)
+                            .phone("138" + String.format("%08d", index))
+                            .address("湖北省武汉市洪山区徐东大街" + index % 100 + "号")
+                            .build();
+                }
+            };
+        }
+    }
+
+    /**
+     * 只统计写出字节数的响应输出流
+     */
+    private static class CountingOutputStream extends ServletOutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
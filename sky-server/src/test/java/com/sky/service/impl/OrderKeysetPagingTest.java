@@ -0,0 +1,103 @@
+package com.sky.service.impl;
+
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.entity.Orders;
+import com.sky.mapper.MapperTestSupport;
+import com.sky.mapper.OrderMapper;
+import com.sky.result.CursorPageResult;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 订单游标分页：按OrderMapper.xml的实际SQL在H2上翻页，结果与 LIMIT offset 逐条一致
+ */
+class OrderKeysetPagingTest {
+
+    private static final String ORDERS_DDL = "create table orders (" +
+            "id bigint auto_increment primary key, number varchar(50), phone varchar(11), user_id bigint, " +
+            "status int, order_time datetime, amount decimal(10, 2))";
+
+    private DataSource dataSource;
+    private SqlSession sqlSession;
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = MapperTestSupport.h2("jdbc:h2:mem:keyset_paging");
+        MapperTestSupport.execute(dataSource, "drop table if exists orders", ORDERS_DDL,
+                "create index idx_orders_order_time_id on orders (order_time, id)",
+                // 每3条订单共用一个下单时间，覆盖游标中 order_time 相同、按 id 区分的情况
+                "insert into orders (number, status, user_id, order_time, amount) " +
+                        "select r.n, mod(r.n, 6) + 1, mod(r.n, 7), dateadd('MINUTE', r.n / 3, timestamp '2024-01-01 00:00:00'), 10 " +
+                        "from system_range(1, 250) r(n)",
+                // 下单时间为空的脏数据不应生成无法解析的游标
+                "insert into orders (number, status, user_id, order_time, amount) values ('null-time', 5, 1, null, 10)");
+        sqlSession = MapperTestSupport.sqlSessionFactory(dataSource, "mapper/OrderMapper.xml").openSession(true);
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderMapper", sqlSession.getMapper(OrderMapper.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+    }
+
+    @Test
+    void pagesThroughAllOrdersInOffsetOrder() throws Exception {
+        List<Long> expected = offsetIds(null);
+
+        assertThat(keysetIds(null, 20)).isEqualTo(expected).hasSize(250);
+    }
+
+    @Test
+    void pagesThroughFilteredOrdersInOffsetOrder() throws Exception {
+        List<Long> expected = offsetIds(3);
+
+        assertThat(keysetIds(3, 7)).isEqualTo(expected).isNotEmpty();
+    }
+
+    private List<Long> keysetIds(Integer status, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrdersPageQueryDTO query = new OrdersPageQueryDTO();
+            query.setPageSize(pageSize);
+            query.setStatus(status);
+            query.setCursor(cursor);
+            CursorPageResult page = orderService.conditionSearch(query);
+            for (Object record : page.getRecords()) {
+                ids.add(((Orders) record).getId());
+            }
+            cursor = page.getNextCursor();
+            assertThat(cursor != null).isEqualTo(page.isHasMore());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> offsetIds(Integer status) throws Exception {
+        String sql = "select id from orders where order_time is not null"
+                + (status == null ? "" : " and status = " + status)
+                + " order by order_time desc, id desc";
+        List<Long> ids = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
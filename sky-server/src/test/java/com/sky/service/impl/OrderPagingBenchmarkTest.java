@@ -0,0 +1,127 @@
+package com.sky.service.impl;
+
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.entity.Orders;
+import com.sky.mapper.MapperTestSupport;
+import com.sky.mapper.OrderMapper;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 订单分页性能对比：LIMIT offset 与 (order_time, id) 游标
+ * <pre>
+ * 默认跳过，手动执行：
+ *   mvn -pl sky-server test -Dtest=OrderPagingBenchmarkTest -Dbenchmark=true -Dbenchmark.rows=1000000
+ * - 数据写入target/benchmark下的H2文件库（MySQL兼容模式），1000万行时也不占用堆内存
+ * - 分别在总行数的10%、50%、90%深度读取一页，游标取该位置前一条记录，两种方式返回同一页
+ * - 每个深度先预热再取多次平均；结果打印到控制台
+ * </pre>
+ * H2与MySQL的绝对耗时不同，对比的是两种方式随深度增长的趋势
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderPagingBenchmarkTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    private static final String OFFSET_SQL = "select * from orders where order_time is not null " +
+            "order by order_time desc, id desc limit ? offset ?";
+
+    @Test
+    void keysetVersusOffset() throws Exception {
+        long rows = Long.getLong("benchmark.rows", 1_000_000L);
+        DataSource dataSource = MapperTestSupport.h2("jdbc:h2:file:./target/benchmark/orders_" + rows);
+        prepare(dataSource, rows);
+
+        try (SqlSession sqlSession = MapperTestSupport.sqlSessionFactory(dataSource, "mapper/OrderMapper.xml").openSession(true)) {
+            OrderMapper orderMapper = sqlSession.getMapper(OrderMapper.class);
+            System.out.printf("rows=%d pageSize=%d%n", rows, PAGE_SIZE);
+            for (double depth : new double[]{0.1, 0.5, 0.9}) {
+                long offset = (long) (rows * depth);
+                Orders previous = offsetPage(dataSource, offset - 1, 1).get(0);
+
+                List<Orders> offsetPage = offsetPage(dataSource, offset, PAGE_SIZE);
+                List<Orders> keysetPage = keysetPage(orderMapper, previous);
+                assertThat(keysetPage).extracting(Orders::getId).containsExactly(offsetPage.stream().map(Orders::getId).toArray(Long[]::new));
+
+                double offsetMillis = average(() -> offsetPage(dataSource, offset, PAGE_SIZE));
+                double keysetMillis = average(() -> keysetPage(orderMapper, previous));
+                System.out.printf("depth=%d%% offset=%.2fms keyset=%.2fms%n", (int) (depth * 100), offsetMillis, keysetMillis);
+            }
+        }
+    }
+
+    private static void prepare(DataSource dataSource, long rows) throws Exception {
+        MapperTestSupport.execute(dataSource, "create table if not exists orders (" +
+                "id bigint auto_increment primary key, number varchar(50), phone varchar(11), user_id bigint, " +
+                "status int, order_time datetime, amount decimal(10, 2))",
+                "create index if not exists idx_orders_order_time_id on orders (order_time, id)");
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement count = connection.prepareStatement("select count(*) from orders");
+             ResultSet rs = count.executeQuery()) {
+            rs.next();
+            if (rs.getLong(1) == rows) {
+                return;
+            }
+        }
+        MapperTestSupport.execute(dataSource, "truncate table orders",
+                "insert into orders (number, status, user_id, order_time, amount) " +
+                        "select r.n, mod(r.n, 6) + 1, mod(r.n, 100000), dateadd('SECOND', r.n, timestamp '2020-01-01 00:00:00'), 10 " +
+                        "from system_range(1, " + rows + ") r(n)");
+    }
+
+    private static List<Orders> keysetPage(OrderMapper orderMapper, Orders previous) {
+        return orderMapper.pageQueryByKeyset(new OrdersPageQueryDTO(), previous.getOrderTime(), previous.getId(), PAGE_SIZE);
+    }
+
+    private static List<Orders> offsetPage(DataSource dataSource, long offset, int limit) throws Exception {
+        List<Orders> orders = new ArrayList<>(limit);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(OFFSET_SQL)) {
+            statement.setInt(1, limit);
+            statement.setLong(2, offset);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp orderTime = rs.getTimestamp("order_time");
+                    orders.add(Orders.builder()
+                            .id(rs.getLong("id"))
+                            .number(rs.getString("number"))
+                            .status(rs.getInt("status"))
+                            .userId(rs.getLong("user_id"))
+                            .orderTime(orderTime == null ? null : orderTime.toLocalDateTime())
+                            .amount(rs.getBigDecimal("amount"))
+                            .build());
+                }
+            }
+        }
+        return orders;
+    }
+
+    private static double average(PageQuery query) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        Object run() throws Exception;
+    }
+}
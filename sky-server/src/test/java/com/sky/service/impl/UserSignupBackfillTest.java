@@ -0,0 +1,68 @@
+package com.sky.service.impl;
+
+import com.sky.entity.UserSignupDaily;
+import com.sky.mapper.UserMapper;
+import com.sky.mapper.UserSignupDailyMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 每日新增用户回填：今天仍在累加计数，不以覆盖方式回填
+ */
+class UserSignupBackfillTest {
+
+    private UserSignupDailyMapper userSignupDailyMapper;
+    private ReportServiceImpl reportService;
+
+    @BeforeEach
+    void setUp() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.countGroupBySignupDate(any(), any())).thenReturn(Collections.emptyList());
+        userSignupDailyMapper = mock(UserSignupDailyMapper.class);
+        reportService = new ReportServiceImpl();
+        ReflectionTestUtils.setField(reportService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(reportService, "userSignupDailyMapper", userSignupDailyMapper);
+    }
+
+    @Test
+    void rangeEndingTodayStopsAtYesterday() {
+        LocalDate today = LocalDate.now();
+
+        reportService.backfillUserSignups(today.minusDays(3), today);
+
+        assertThat(upsertedDates()).containsExactly(today.minusDays(3), today.minusDays(2), today.minusDays(1));
+    }
+
+    @Test
+    void todayAloneIsSkipped() {
+        LocalDate today = LocalDate.now();
+
+        reportService.backfillUserSignups(today, today);
+
+        verifyNoInteractions(userSignupDailyMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LocalDate> upsertedDates() {
+        ArgumentCaptor<List<UserSignupDaily>> rows = ArgumentCaptor.forClass(List.class);
+        verify(userSignupDailyMapper, atLeastOnce()).upsertBatch(rows.capture());
+        List<LocalDate> dates = new ArrayList<>();
+        rows.getAllValues().forEach(chunk -> chunk.forEach(row -> dates.add(row.getSignupDate())));
+        return dates;
+    }
+}
@@ -0,0 +1,255 @@
+package com.sky.service.impl;
+
+import com.sky.dto.OrderStatusCountDTO;
+import com.sky.mapper.DishMapper;
+import com.sky.mapper.OrderMapper;
+import com.sky.mapper.SetmealMapper;
+import com.sky.mapper.TurnoverDailyMapper;
+import com.sky.mapper.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 工作台计数：两个节点共用一个内存中的Redis HASH，验证flush、对账与跨天
+ */
+class WorkspaceServiceImplTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    private final Map<String, Map<String, String>> redis = new HashMap<>();
+    private MutableClock clock;
+    private UserMapper userMapper;
+    private WorkspaceServiceImpl nodeA;
+    private WorkspaceServiceImpl nodeB;
+    private boolean failIncrements;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hash = mock(HashOperations.class, this::hashCommand);
+        when(stringRedisTemplate.opsForHash()).thenReturn(hash);
+        ValueOperations<String, String> value = mock(ValueOperations.class);
+        when(value.setIfAbsent(anyString(), anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(stringRedisTemplate.opsForValue()).thenReturn(value);
+
+        OrderMapper orderMapper = mock(OrderMapper.class);
+        when(orderMapper.countGroupByStatus(any(), any())).thenReturn(Collections.<OrderStatusCountDTO>emptyList());
+        TurnoverDailyMapper turnoverDailyMapper = mock(TurnoverDailyMapper.class);
+        userMapper = mock(UserMapper.class);
+        DishMapper dishMapper = mock(DishMapper.class);
+        when(dishMapper.countByStatus(any())).thenReturn(0);
+        SetmealMapper setmealMapper = mock(SetmealMapper.class);
+        when(setmealMapper.getCount(any())).thenReturn(0);
+
+        nodeA = node(stringRedisTemplate, orderMapper, turnoverDailyMapper, dishMapper, setmealMapper);
+        nodeB = node(stringRedisTemplate, orderMapper, turnoverDailyMapper, dishMapper, setmealMapper);
+    }
+
+    @Test
+    void flushMergesDeltasFromAllNodes() {
+        register(nodeA, 2);
+        register(nodeB, 1);
+        assertThat(newUsers(nodeA)).isEqualTo(2);
+
+        advance(Duration.ofSeconds(1));
+        nodeA.flush();
+        nodeB.flush();
+        nodeA.flush();
+
+        assertThat(newUsers(nodeA)).isEqualTo(3);
+        assertThat(newUsers(nodeB)).isEqualTo(3);
+    }
+
+    @Test
+    void reconcileDoesNotCountUnflushedDeltasTwice() {
+        register(nodeA, 2);
+        advance(Duration.ofSeconds(1));
+        nodeA.flush();
+        // B的注册已写入MySQL，但还未flush
+        register(nodeB, 1);
+        advance(Duration.ofMillis(300));
+
+        when(userMapper.countByCreateTime(any(), any())).thenReturn(3);
+        nodeA.reconcile();
+        advance(Duration.ofMillis(300));
+        // 对账之后的注册不在对账结果中，需由增量计入
+        register(nodeB, 1);
+        advance(Duration.ofSeconds(1));
+        nodeB.flush();
+        nodeA.flush();
+
+        assertThat(newUsers(nodeA)).isEqualTo(4);
+        assertThat(newUsers(nodeB)).isEqualTo(4);
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        register(nodeA, 5);
+        advance(Duration.ofSeconds(1));
+        nodeA.flush();
+
+        when(userMapper.countByCreateTime(any(), any())).thenReturn(3);
+        nodeA.reconcile();
+        nodeA.flush();
+
+        assertThat(newUsers(nodeA)).isEqualTo(3);
+    }
+
+    @Test
+    void deltasRecordedAfterMidnightGoToTheNewDay() {
+        clock.instant = Instant.parse("2024-05-01T23:59:59.500Z");
+        register(nodeA, 2);
+        advance(Duration.ofSeconds(1));
+        // 跨天后、flush之前的注册
+        register(nodeA, 1);
+        assertThat(newUsers(nodeA)).isEqualTo(1);
+
+        advance(Duration.ofSeconds(1));
+        nodeA.flush();
+
+        assertThat(redis.get("sky:workspace:today:2024-05-01")).containsEntry("newUsers@0", "2");
+        assertThat(redis.get("sky:workspace:today:2024-05-02")).containsEntry("newUsers@0", "1");
+        assertThat(newUsers(nodeA)).isEqualTo(1);
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForRetry() {
+        register(nodeA, 2);
+        advance(Duration.ofSeconds(1));
+        failIncrements = true;
+        try {
+            nodeA.flush();
+        } catch (IllegalStateException expected) {
+            // 下一轮重试
+        }
+        failIncrements = false;
+        assertThat(newUsers(nodeA)).isEqualTo(2);
+
+        nodeA.flush();
+        nodeA.flush();
+
+        assertThat(newUsers(nodeA)).isEqualTo(2);
+    }
+
+    private WorkspaceServiceImpl node(StringRedisTemplate stringRedisTemplate, OrderMapper orderMapper,
+                                      TurnoverDailyMapper turnoverDailyMapper, DishMapper dishMapper,
+                                      SetmealMapper setmealMapper) {
+        WorkspaceServiceImpl node = new WorkspaceServiceImpl();
+        ReflectionTestUtils.setField(node, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(node, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(node, "turnoverDailyMapper", turnoverDailyMapper);
+        ReflectionTestUtils.setField(node, "userMapper", userMapper);
+        ReflectionTestUtils.setField(node, "dishMapper", dishMapper);
+        ReflectionTestUtils.setField(node, "setmealMapper", setmealMapper);
+        node.clock = clock;
+        return node;
+    }
+
+    private void register(WorkspaceServiceImpl node, int count) {
+        for (int i = 0; i < count; i++) {
+            node.onUserRegistered(LocalDateTime.ofInstant(clock.instant(), ZONE));
+        }
+    }
+
+    private int newUsers(WorkspaceServiceImpl node) {
+        return node.getBusinessData().getNewUsers();
+    }
+
+    private void advance(Duration duration) {
+        clock.instant = clock.instant.plus(duration);
+    }
+
+    /**
+     * 内存中的HASH命令，覆盖WorkspaceServiceImpl用到的部分
+     */
+    private Object hashCommand(InvocationOnMock invocation) {
+        Object[] args = invocation.getArguments();
+        Map<String, String> hash = redis.computeIfAbsent((String) args[0], key -> new HashMap<>());
+        switch (invocation.getMethod().getName()) {
+            case "get":
+                return hash.get((String) args[1]);
+            case "multiGet":
+                List<String> values = new ArrayList<>();
+                for (Object field : (Iterable<?>) args[1]) {
+                    values.add(hash.get((String) field));
+                }
+                return values;
+            case "put":
+                hash.put((String) args[1], (String) args[2]);
+                return null;
+            case "putAll":
+                ((Map<?, ?>) args[1]).forEach((field, value) -> hash.put((String) field, (String) value));
+                return null;
+            case "increment":
+                if (failIncrements) {
+                    throw new IllegalStateException("redis down");
+                }
+                long sum = Long.parseLong(hash.getOrDefault((String) args[1], "0")) + (Long) args[2];
+                hash.put((String) args[1], String.valueOf(sum));
+                return sum;
+            case "entries":
+                return new HashMap<>(hash);
+            case "delete":
+                long deleted = 0;
+                for (int i = 1; i < args.length; i++) {
+                    Object[] fields = args[i] instanceof Object[] ? (Object[]) args[i] : new Object[]{args[i]};
+                    for (Object field : fields) {
+                        deleted += hash.remove((String) field) == null ? 0 : 1;
+                    }
+                }
+                return deleted;
+            default:
+                throw new UnsupportedOperationException(invocation.getMethod().getName());
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sky.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 管理端会话发送队列：推送线程池拒绝后延迟重试
+ */
+class AdminSessionSenderTest {
+
+    private final ScheduledThreadPoolExecutor retryScheduler = new ScheduledThreadPoolExecutor(1);
+
+    @AfterEach
+    void tearDown() {
+        retryScheduler.shutdownNow();
+    }
+
+    @Test
+    void rejectedDrainIsRetriedWithoutNewMessages() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        AtomicInteger attempts = new AtomicInteger();
+        // 前两次提交被拒绝，之后在调用线程执行
+        Executor executor = task -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new RejectedExecutionException("full");
+            }
+            task.run();
+        };
+        AdminSessionSender sender = new AdminSessionSender(session, executor, retryScheduler, 8);
+
+        sender.offer("NEW:1", "order-1");
+        sender.offer("NEW:2", "order-2");
+
+        verify(session, timeout(2000)).sendMessage(new TextMessage("order-1"));
+        verify(session, timeout(2000)).sendMessage(new TextMessage("order-2"));
+    }
+}